@@ -0,0 +1,116 @@
+package com.albertoteloko.utils;
+
+import com.albertoteloko.utils.selector.Selector;
+import com.albertoteloko.utils.selector.SelectorOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the cost of the optional checks. The check benchmarks run a loop of
+ * {@link CheckUtils#optionalCheckNull(String, Object)} and compare it with the same loop without any check call, the
+ * disabled level has zero cost if the OFF score is the same as the baseline score. The extract benchmarks run the
+ * selector hot paths, where the optional checks are the invariants of the selections, with both levels.
+ * <p>
+ * The check level is read once when {@link CheckUtils} is loaded, so each level runs in its own fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CheckLevelBenchmark {
+    private static final int ITEMS = 1000;
+    private static final int VALUES = 1024;
+
+    private String text;
+    private Object[] values;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < ITEMS; i++) {
+            builder.append("<item><id>").append(i).append("</id><name>Item ").append(i).append("</name></item>\n");
+        }
+        text = builder.toString();
+
+        values = new Object[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = Integer.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int checkBaseline() {
+        int hash = 0;
+        for (Object value : values) {
+            hash += value.hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + CheckLevel.PROPERTY + "=ALWAYS")
+    public int checkAlways() {
+        return check();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + CheckLevel.PROPERTY + "=OFF")
+    public int checkOff() {
+        return check();
+    }
+
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + CheckLevel.PROPERTY + "=ALWAYS")
+    public void extractAlways(Blackhole blackhole) {
+        extract(blackhole, new Selector(text));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-D" + CheckLevel.PROPERTY + "=OFF")
+    public void extractOff(Blackhole blackhole) {
+        extract(blackhole, new Selector(text));
+    }
+
+    /**
+     * Check every value with the optional null check, doing the same work as the baseline.
+     *
+     * @return The hash of the values.
+     */
+    private int check() {
+        int hash = 0;
+        for (Object value : values) {
+            CheckUtils.optionalCheckNull("value", value);
+            hash += value.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Extract the fields of every item, with one selection and two extractions per item.
+     *
+     * @param blackhole The sink of the extracted fields.
+     * @param selector  The selector of the text.
+     */
+    private void extract(Blackhole blackhole, Selector selector) {
+        while (selector.selectText("<item>", "</item>", SelectorOptions.OPTIONAL)) {
+            blackhole.consume(selector.extractText("<id>", "</id>"));
+            blackhole.consume(selector.extractText("<name>", "</name>"));
+            selector.deselectText();
+        }
+        blackhole.consume(CheckUtils.getLevel());
+    }
+}
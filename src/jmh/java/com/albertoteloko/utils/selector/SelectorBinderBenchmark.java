@@ -0,0 +1,72 @@
+package com.albertoteloko.utils.selector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares {@link SelectorBinder#bind(CharSequence)} with a hand written extraction of the same record,
+ * that executes the same query and sets the fields without method handles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectorBinderBenchmark {
+    private static final SelectorBinder<Item> BINDER = SelectorBinder.of(Item.class);
+    private static final SelectorQuery QUERY = SelectorQuery.builder()
+            .extractText("<id>", "</id>")
+            .extractText("<name>", "</name>")
+            .extractText("<price>", "</price>")
+            .extractText("<stock>", "</stock>")
+            .build();
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = "<item><id>123456</id><name>Green tea</name><price>12.75</price><stock>true</stock></item>";
+    }
+
+    @Benchmark
+    public Item bind() {
+        return BINDER.bind(text);
+    }
+
+    @Benchmark
+    public Item handWritten() {
+        ExtractionResult result = QUERY.execute(text);
+        Item item = new Item();
+
+        item.id = Integer.parseInt(result.getText(0));
+        item.name = result.getText(1);
+        item.price = Double.parseDouble(result.getText(2));
+        item.stock = Boolean.parseBoolean(result.getText(3));
+        return item;
+    }
+
+    /**
+     * The record of the benchmark.
+     */
+    public static class Item {
+        @SelectorField(start = "<id>", end = "</id>")
+        private int id;
+        @SelectorField(start = "<name>", end = "</name>")
+        private String name;
+        @SelectorField(start = "<price>", end = "</price>")
+        private double price;
+        @SelectorField(start = "<stock>", end = "</stock>")
+        private boolean stock;
+    }
+}
@@ -0,0 +1,61 @@
+package com.albertoteloko.utils;
+
+/**
+ * This enum represent the levels of the optional checks of {@link CheckUtils}.
+ * <p>
+ * The optional checks are the ones that only find mistakes of this library, like an empty param name or a broken
+ * invariant of an internal class, made inside {@link CheckUtils#isOptionalCheckEnabled()} or with the optional variants
+ * like {@link CheckUtils#optionalCheckNull(String, Object)}. The checks of the values given to the public methods are
+ * always done, so the level never changes the contract of the public API. The level is read once from the system
+ * property {@value #PROPERTY}, and ALWAYS is used if it's not defined or not valid.
+ */
+public enum CheckLevel {
+    /**
+     * The optional checks are always done.
+     */
+    ALWAYS,
+    /**
+     * The optional checks are only done if the assertions are enabled, with -ea.
+     */
+    DEBUG,
+    /**
+     * The optional checks are never done.
+     */
+    OFF;
+
+    /**
+     * The system property with the check level.
+     */
+    public static final String PROPERTY = "com.albertoteloko.utils.checkLevel";
+
+    /**
+     * Check if the optional checks are done with this level.
+     *
+     * @return True if they are done, False if they aren't.
+     */
+    public boolean isEnabled() {
+        switch (this) {
+            case ALWAYS:
+                return true;
+            case DEBUG:
+                return CheckUtils.class.desiredAssertionStatus();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read the level from the system property.
+     *
+     * @return The level, ALWAYS if the property is not defined or not valid.
+     */
+    static CheckLevel fromSystemProperty() {
+        try {
+            String value = System.getProperty(PROPERTY);
+
+            return (value != null) ? valueOf(value.trim().toUpperCase()) : ALWAYS;
+        } catch (IllegalArgumentException | SecurityException e) {
+            return ALWAYS;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.albertoteloko.utils;
 
+import java.util.Collection;
 import java.util.regex.Pattern;
 
 /**
@@ -7,6 +8,32 @@ import java.util.regex.Pattern;
  * 
  */
 public final class CheckUtils {
+	// The compiled patterns of checkStringPattern
+	private static final PatternCache PATTERNS = new PatternCache(256);
+	// The number of elements checked by the array checks before looking for an offending one
+	private static final int BLOCK_SIZE = 1024;
+	// Read once and final, so the JIT removes the optional checks when they are disabled
+	private static final CheckLevel LEVEL = CheckLevel.fromSystemProperty();
+	private static final boolean OPTIONAL_CHECKS = LEVEL.isEnabled();
+
+	/**
+	 * Getter.
+	 * 
+	 * @return The level of the optional checks.
+	 */
+	public static CheckLevel getLevel() {
+		return LEVEL;
+	}
+
+	/**
+	 * Check if the optional checks are done, the ones that only find mistakes of the code that calls the checks. Those
+	 * checks must be written inside an if with this method, so they are removed when they are disabled.
+	 * 
+	 * @return True if they are done, False if they aren't.
+	 */
+	public static boolean isOptionalCheckEnabled() {
+		return OPTIONAL_CHECKS;
+	}
 
 	/**
 	 * Check one object. <br>
@@ -22,6 +49,21 @@ public final class CheckUtils {
 		}
 	}
 
+	/**
+	 * Check one object only if the optional checks are done. <br>
+	 * It's for the values that were already checked by a public method, inside the internal code of the library. It must
+	 * never be used for the params of a public method.
+	 * 
+	 * @param name The param name.
+	 * @param value The param value.
+	 * @throws NullPointerException If the optional checks are done and the value is null.
+	 */
+	public static void optionalCheckNull(String name, Object value) {
+		if (OPTIONAL_CHECKS) {
+			checkNull(name, value);
+		}
+	}
+
 	/**
 	 * Check one string. <br>
 	 * And if it is null or empty an exception will be throw.
@@ -86,16 +128,58 @@ public final class CheckUtils {
 	 * @throws IllegalArgumentException If the name is empty, If the value doesn't match the pattern.
 	 */
 	public static void checkStringPattern(String name, String value, String pattern, String patternDescription) {
-		checkNull("name", name);
+		if (OPTIONAL_CHECKS) {
+			checkNull("name", name);
+		}
 		checkNull("pattern", pattern);
 
-		Pattern patternCompiled = Pattern.compile(pattern);
+		checkStringPattern(name, value, PATTERNS.get(pattern), patternDescription);
+	}
 
-		if (!patternCompiled.matcher(value).matches()) {
+	/**
+	 * Create a reusable check of the strings that must match a pattern. The pattern is compiled once, so the check
+	 * never compiles it again nor looks it up.
+	 * 
+	 * @param pattern The pattern value.
+	 * @return The string check.
+	 * @throws NullPointerException If the pattern is null.
+	 * @throws java.util.regex.PatternSyntaxException If the pattern is not valid.
+	 */
+	public static StringCheck pattern(String pattern) {
+		return pattern(pattern, null);
+	}
+
+	/**
+	 * Create a reusable check of the strings that must match a pattern. The pattern is compiled once, so the check
+	 * never compiles it again nor looks it up.
+	 * 
+	 * @param pattern The pattern value.
+	 * @param patternDescription The pattern description, null to show the pattern in the errors.
+	 * @return The string check.
+	 * @throws NullPointerException If the pattern is null.
+	 * @throws java.util.regex.PatternSyntaxException If the pattern is not valid.
+	 */
+	public static StringCheck pattern(String pattern, String patternDescription) {
+		checkNull("pattern", pattern);
+
+		return new StringCheck(Pattern.compile(pattern), patternDescription);
+	}
+
+	/**
+	 * Check one string against a compiled pattern.
+	 * 
+	 * @param name The param name.
+	 * @param value The param value.
+	 * @param pattern The compiled pattern.
+	 * @param patternDescription The pattern description.
+	 * @throws IllegalArgumentException If the value doesn't match the pattern.
+	 */
+	static void checkStringPattern(String name, String value, Pattern pattern, String patternDescription) {
+		if (!pattern.matcher(value).matches()) {
 			StringBuilder exceptionDescription = new StringBuilder("The param").append(name);
 			
 			if(patternDescription == null){
-				exceptionDescription.append(", doesn't match with the pattern '").append(pattern).append("'");
+				exceptionDescription.append(", doesn't match with the pattern '").append(pattern.pattern()).append("'");
 			}else{
 				exceptionDescription.append(", have to be ").append(patternDescription).append(".");
 			}
@@ -411,9 +495,11 @@ public final class CheckUtils {
 	 * @throws IllegalArgumentException If the param is not included in the interval.
 	 */
 	public static void checkLong(String name, long value, String minName, long min, String maxName, long max) {
-		checkString("name", name);
-		checkString("minName", minName, false, true);
-		checkString("maxName", maxName, false, true);
+		if (OPTIONAL_CHECKS) {
+			checkString("name", name);
+			checkString("minName", minName, false, true);
+			checkString("maxName", maxName, false, true);
+		}
 
 		if (min > max) {
 			throw new IllegalArgumentException("The min can't be bigger than the max.");
@@ -582,9 +668,11 @@ public final class CheckUtils {
 	 * @throws IllegalArgumentException If the param is not included in the interval.
 	 */
 	public static void checkDouble(String name, double value, String minName, double min, String maxName, double max) {
-		checkString("name", name);
-		checkString("minName", minName, false, true);
-		checkString("maxName", maxName, false, true);
+		if (OPTIONAL_CHECKS) {
+			checkString("name", name);
+			checkString("minName", minName, false, true);
+			checkString("maxName", maxName, false, true);
+		}
 
 		if (min > max) {
 			throw new IllegalArgumentException("The min can't be bigger than the max.");
@@ -599,4 +687,310 @@ public final class CheckUtils {
 					+ ((!maxName.isEmpty()) ? " (" + maxName + ")" : "") + ".");
 		}
 	}
+
+	/**
+	 * Check if all the elements of an int array are in one interval exception will be throw if aren't it.</br>
+	 * WARNING: The delimiter are included.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If one element is not included in the interval, with its index and value.
+	 */
+	public static void checkInts(String name, int[] values, int min, int max) {
+		checkNull(name, values);
+
+		checkInts(name, values, 0, values.length, min, max);
+	}
+
+	/**
+	 * Check if the elements of a slice of an int array are in one interval exception will be throw if aren't
+	 * it.</br> WARNING: The delimiter are included.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param from The first index checked.
+	 * @param to The index after the last one checked.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If the slice is not inside the array, If one element is not included in the
+	 *             interval, with its index and value.
+	 */
+	public static void checkInts(String name, int[] values, int from, int to, int min, int max) {
+		checkSlice(name, values, from, to, (values != null) ? values.length : 0);
+		checkInterval(min, max);
+
+		for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+			int blockEnd = Math.min(to, blockStart + BLOCK_SIZE);
+			int signs = 0;
+
+			// Without branches, so the loop can be vectorized. A value out of the interval always makes one difference
+			// negative, even if it overflows, and the overflows of a huge interval only cause a needless exact check
+			for (int i = blockStart; i < blockEnd; i++) {
+				signs |= (values[i] - min) | (max - values[i]);
+			}
+
+			if (signs < 0) {
+				for (int i = blockStart; i < blockEnd; i++) {
+					checkElement(name, i, values[i], min, max);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check if all the elements of a long array are in one interval exception will be throw if aren't it.</br>
+	 * WARNING: The delimiter are included.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If one element is not included in the interval, with its index and value.
+	 */
+	public static void checkLongs(String name, long[] values, long min, long max) {
+		checkNull(name, values);
+
+		checkLongs(name, values, 0, values.length, min, max);
+	}
+
+	/**
+	 * Check if the elements of a slice of a long array are in one interval exception will be throw if aren't
+	 * it.</br> WARNING: The delimiter are included.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param from The first index checked.
+	 * @param to The index after the last one checked.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If the slice is not inside the array, If one element is not included in the
+	 *             interval, with its index and value.
+	 */
+	public static void checkLongs(String name, long[] values, int from, int to, long min, long max) {
+		checkSlice(name, values, from, to, (values != null) ? values.length : 0);
+		checkInterval(min, max);
+
+		for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+			int blockEnd = Math.min(to, blockStart + BLOCK_SIZE);
+			long signs = 0;
+
+			// Without branches, so the loop can be vectorized. A value out of the interval always makes one difference
+			// negative, even if it overflows, and the overflows of a huge interval only cause a needless exact check
+			for (int i = blockStart; i < blockEnd; i++) {
+				signs |= (values[i] - min) | (max - values[i]);
+			}
+
+			if (signs < 0) {
+				for (int i = blockStart; i < blockEnd; i++) {
+					checkElement(name, i, values[i], min, max);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check if all the elements of a double array are in one interval exception will be throw if aren't it.</br>
+	 * WARNING: The delimiter are included. As in checkDouble, NaN is
+	 * not rejected.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If one element is not included in the interval, with its index and value.
+	 */
+	public static void checkDoubles(String name, double[] values, double min, double max) {
+		checkNull(name, values);
+
+		checkDoubles(name, values, 0, values.length, min, max);
+	}
+
+	/**
+	 * Check if the elements of a slice of a double array are in one interval exception will be throw if aren't
+	 * it.</br> WARNING: The delimiter are included. As in checkDouble, NaN is
+	 * not rejected.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param from The first index checked.
+	 * @param to The index after the last one checked.
+	 * @param min The min value allowed to the elements.
+	 * @param max The max value allowed to the elements.
+	 * @throws NullPointerException If the values are null.
+	 * @throws IllegalArgumentException If the slice is not inside the array, If one element is not included in the
+	 *             interval, with its index and value.
+	 */
+	public static void checkDoubles(String name, double[] values, int from, int to, double min, double max) {
+		checkSlice(name, values, from, to, (values != null) ? values.length : 0);
+		checkInterval(min, max);
+
+		for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+			int blockEnd = Math.min(to, blockStart + BLOCK_SIZE);
+			boolean invalid = false;
+
+			// Without early exit, so the loop can be vectorized
+			for (int i = blockStart; i < blockEnd; i++) {
+				invalid |= (values[i] < min) | (values[i] > max);
+			}
+
+			if (invalid) {
+				for (int i = blockStart; i < blockEnd; i++) {
+					checkElement(name, i, values[i], min, max);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check the elements of a collection. And if one of them is null an exception will be throw.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @throws NullPointerException If the values are null, If one element is null, with its index.
+	 */
+	public static void checkNotNulls(String name, Collection<?> values) {
+		checkNull(name, values);
+
+		int index = 0;
+		for (Object value : values) {
+			if (value == null) {
+				throw new NullPointerException("The param with name " + name + "[" + index + "] can't have a null value.");
+			}
+			index++;
+		}
+	}
+
+	/**
+	 * Check the elements of a string array. And if one of them is null or empty an exception will be throw.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @throws NullPointerException If the values are null, If one element is null, with its index.
+	 * @throws IllegalArgumentException If one element is empty, with its index.
+	 */
+	public static void checkStrings(String name, String[] values) {
+		checkNull(name, values);
+
+		for (int i = 0; i < values.length; i++) {
+			checkElement(name, i, values[i]);
+		}
+	}
+
+	/**
+	 * Check the elements of a string collection. And if one of them is null or empty an exception will be throw.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @throws NullPointerException If the values are null, If one element is null, with its index.
+	 * @throws IllegalArgumentException If one element is empty, with its index.
+	 */
+	public static void checkStrings(String name, Collection<String> values) {
+		checkNull(name, values);
+
+		int index = 0;
+		for (String value : values) {
+			checkElement(name, index++, value);
+		}
+	}
+
+	/**
+	 * Check the array and the slice of a bulk check.
+	 * 
+	 * @param name The param name.
+	 * @param values The param values.
+	 * @param from The first index checked.
+	 * @param to The index after the last one checked.
+	 * @param length The array length.
+	 */
+	private static void checkSlice(String name, Object values, int from, int to, int length) {
+		if (OPTIONAL_CHECKS) {
+			checkString("name", name);
+		}
+		checkNull(name, values);
+		checkInt("from", from, "", 0, "length", length);
+		checkInt("to", to, "from", from, "length", length);
+	}
+
+	/**
+	 * Check the interval of a bulk check.
+	 * 
+	 * @param min The min value allowed.
+	 * @param max The max value allowed.
+	 */
+	private static void checkInterval(long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("The min can't be bigger than the max.");
+		}
+	}
+
+	/**
+	 * Check the interval of a bulk check.
+	 * 
+	 * @param min The min value allowed.
+	 * @param max The max value allowed.
+	 */
+	private static void checkInterval(double min, double max) {
+		if (min > max) {
+			throw new IllegalArgumentException("The min can't be bigger than the max.");
+		}
+	}
+
+	/**
+	 * Check one element of an array, out of the bulk loop.
+	 * 
+	 * @param name The param name.
+	 * @param index The element index.
+	 * @param value The element value.
+	 * @param min The min value allowed.
+	 * @param max The max value allowed.
+	 */
+	private static void checkElement(String name, int index, long value, long min, long max) {
+		if (value < min) {
+			throw new IllegalArgumentException("The param " + name + "[" + index + "] (" + value + ") can't be smaller than " + min + ".");
+		}
+		if (value > max) {
+			throw new IllegalArgumentException("The param " + name + "[" + index + "] (" + value + ") can't be bigger than " + max + ".");
+		}
+	}
+
+	/**
+	 * Check one element of an array, out of the bulk loop.
+	 * 
+	 * @param name The param name.
+	 * @param index The element index.
+	 * @param value The element value.
+	 * @param min The min value allowed.
+	 * @param max The max value allowed.
+	 */
+	private static void checkElement(String name, int index, double value, double min, double max) {
+		if (value < min) {
+			throw new IllegalArgumentException("The param " + name + "[" + index + "] (" + value + ") can't be smaller than " + min + ".");
+		}
+		if (value > max) {
+			throw new IllegalArgumentException("The param " + name + "[" + index + "] (" + value + ") can't be bigger than " + max + ".");
+		}
+	}
+
+	/**
+	 * Check one element of a string array or collection.
+	 * 
+	 * @param name The param name.
+	 * @param index The element index.
+	 * @param value The element value.
+	 */
+	private static void checkElement(String name, int index, String value) {
+		if (value == null) {
+			throw new NullPointerException("The param with name " + name + "[" + index + "] can't have a null value.");
+		}
+		if (value.isEmpty()) {
+			throw new IllegalArgumentException("The param with name: '" + name + "[" + index + "]' can't be empty.");
+		}
+	}
 }
@@ -0,0 +1,247 @@
+package com.albertoteloko.utils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * This class formats doubles with the same output than a {@link java.text.DecimalFormat} with the pattern "#", "#.#",
+ * "#.##" or "#.###": up to the given fraction digits, without trailing zeros nor grouping, rounding half even.
+ * <p>
+ * Unlike DecimalFormat this class is immutable, so one instance can be shared by any number of threads without locks,
+ * and it can write into a reusable StringBuilder or Appendable. The values smaller than 2^40 are rounded from their
+ * exact binary value with long arithmetic, without allocating memory. The bigger ones are rounded from their shortest
+ * decimal representation, as DecimalFormat does, with BigDecimal.
+ */
+public final class DecimalFormatter {
+    // The formatter of the pattern "#.###" in the default locale
+    public static final DecimalFormatter DEFAULT = new DecimalFormatter(3);
+    // The max fraction digits that can be rounded with long arithmetic
+    private static final int MAX_FRACTION_DIGITS = 3;
+    // The values from this one are rounded from their shortest decimal representation
+    private static final double LONG_ARITHMETIC_LIMIT = 0x1p40;
+
+    private final int fractionDigits;
+    private final long scale;
+    // DecimalFormat rounds 0.0005 down to three fraction digits, although its binary value is bigger than the half
+    private final double roundedDown;
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final String negativePrefix;
+    private final String nan;
+    private final String infinity;
+
+    /**
+     * Constructor. Use the symbols of the default locale, as DecimalFormat does.
+     *
+     * @param fractionDigits The max fraction digits, from 0 to 3.
+     */
+    public DecimalFormatter(int fractionDigits) {
+        this(fractionDigits, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fractionDigits The max fraction digits, from 0 to 3.
+     * @param locale         The locale of the symbols.
+     */
+    public DecimalFormatter(int fractionDigits, Locale locale) {
+        CheckUtils.checkInt("fractionDigits", fractionDigits, 0, MAX_FRACTION_DIGITS);
+        CheckUtils.checkNull("locale", locale);
+
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        long unit = 1;
+        for (int i = 0; i < fractionDigits; i++) {
+            unit *= 10;
+        }
+
+        this.fractionDigits = fractionDigits;
+        this.scale = unit;
+        this.roundedDown = (fractionDigits == 3) ? 0.0005 : -1;
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.negativePrefix = new DecimalFormat("#", symbols).getNegativePrefix();
+        this.nan = symbols.getNaN();
+        this.infinity = symbols.getInfinity();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The max fraction digits.
+     */
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    /**
+     * Format a value.
+     *
+     * @param value The value.
+     * @return The formatted value.
+     */
+    public String format(double value) {
+        return format(value, new StringBuilder(24)).toString();
+    }
+
+    /**
+     * Format a value at the end of a builder.
+     *
+     * @param value  The value.
+     * @param output The builder where the value is appended.
+     * @return The same builder.
+     */
+    public StringBuilder format(double value, StringBuilder output) {
+        try {
+            format(value, (Appendable) output);
+        } catch (IOException e) {
+            ExceptionUtils.throwRuntimeException(e);
+        }
+        return output;
+    }
+
+    /**
+     * Format a value into an output, without an intermediate string.
+     *
+     * @param value  The value.
+     * @param output The output where the value is appended.
+     * @throws IOException If the output fails.
+     */
+    public void format(double value, Appendable output) throws IOException {
+        CheckUtils.checkNull("output", output);
+
+        if (Double.isNaN(value)) {
+            output.append(nan);
+            return;
+        }
+
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits < 0) {
+            output.append(negativePrefix);
+        }
+
+        double abs = Math.abs(value);
+        if (Double.isInfinite(abs)) {
+            output.append(infinity);
+        } else if (abs < LONG_ARITHMETIC_LIMIT) {
+            long rounded = round(bits & Long.MAX_VALUE, abs);
+            appendDigits(output, rounded / scale, 1);
+            appendFraction(output, rounded % scale);
+        } else {
+            appendDecimal(output, abs);
+        }
+    }
+
+    /**
+     * Round a value smaller than the long arithmetic limit to an integer number of units of the last fraction digit.
+     *
+     * @param bits The bits of the value, without the sign.
+     * @param abs  The value, without the sign.
+     * @return The number of units.
+     */
+    private long round(long bits, double abs) {
+        if (abs == roundedDown) {
+            return 0;
+        }
+
+        // The value is exactly mantissa / 2^shift, and the mantissa has 53 bits at most, so mantissa * 1000 fits
+        int exponent = (int) (bits >>> 52);
+        long mantissa = bits & 0xFFFFFFFFFFFFFL;
+        if (exponent != 0) {
+            mantissa |= 1L << 52;
+        } else {
+            exponent = 1;
+        }
+
+        long scaled = mantissa * scale;
+        int shift = 1075 - exponent;
+        if (shift > 63) {
+            return 0;
+        } else if (shift == 63) {
+            return (scaled > (1L << 62)) ? 1 : 0;
+        }
+
+        long result = scaled >>> shift;
+        long remainder = scaled & ((1L << shift) - 1);
+        long half = 1L << (shift - 1);
+        if ((remainder > half) || ((remainder == half) && ((result & 1) != 0))) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Append the fraction digits of a rounded value, without the trailing zeros.
+     *
+     * @param output   The output.
+     * @param fraction The fraction in units of the last fraction digit.
+     * @throws IOException If the output fails.
+     */
+    private void appendFraction(Appendable output, long fraction) throws IOException {
+        if (fraction == 0) {
+            return;
+        }
+
+        int digits = fractionDigits;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        output.append(decimalSeparator);
+        appendDigits(output, fraction, digits);
+    }
+
+    /**
+     * Append the digits of a not negative long.
+     *
+     * @param output    The output.
+     * @param value     The value.
+     * @param minDigits The min number of digits, filled with leading zeros.
+     * @throws IOException If the output fails.
+     */
+    private void appendDigits(Appendable output, long value, int minDigits) throws IOException {
+        long power = 1;
+        int digits = 1;
+        while ((digits < minDigits) || (power <= value / 10)) {
+            power *= 10;
+            digits++;
+        }
+
+        for (; power > 0; power /= 10) {
+            output.append((char) (zeroDigit + (value / power) % 10));
+        }
+    }
+
+    /**
+     * Append a big value rounded from its shortest decimal representation. The ties of that representation are
+     * broken with the exact binary value.
+     *
+     * @param output The output.
+     * @param abs    The value, without the sign.
+     * @throws IOException If the output fails.
+     */
+    private void appendDecimal(Appendable output, double abs) throws IOException {
+        BigDecimal shortest = new BigDecimal(Double.toString(abs));
+        BigDecimal rounded = shortest.setScale(fractionDigits, RoundingMode.DOWN);
+
+        if (shortest.compareTo(rounded) != 0) {
+            int half = shortest.subtract(rounded).compareTo(BigDecimal.valueOf(5, fractionDigits + 1));
+            if (half == 0) {
+                half = new BigDecimal(abs).compareTo(shortest);
+            }
+            if ((half > 0) || ((half == 0) && (rounded.unscaledValue().testBit(0)))) {
+                rounded = rounded.add(BigDecimal.ONE.movePointLeft(fractionDigits));
+            }
+        }
+
+        String digits = rounded.stripTrailingZeros().toPlainString();
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            output.append((c == '.') ? decimalSeparator : (char) (zeroDigit + c - '0'));
+        }
+    }
+}
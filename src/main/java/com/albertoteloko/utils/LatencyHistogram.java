@@ -0,0 +1,284 @@
+package com.albertoteloko.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * This class counts durations in logarithmic buckets, to get their percentiles.
+ * <p>
+ * Each power of two is divided into 32 linear buckets, so the value reported for a percentile is never more than about
+ * 3% bigger than the real one, from nanoseconds to centuries. Each bucket is a {@link LongAdder}, so recording a
+ * duration doesn't take any lock nor allocate memory, and many threads can record at the same time without contention.
+ * The snapshots are taken while the recording goes on, reading the buckets, the total and the max one after the
+ * other, so the durations recorded at the same time can be in some of them and not in the others: the count, the mean
+ * and the max of a snapshot can disagree a little. The max is kept inside the highest bucket counted, so the
+ * percentiles never go over it.
+ */
+public final class LatencyHistogram {
+    // The buckets of each power of two are 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Enough buckets for any positive long
+    private static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    }, 0);
+
+    /**
+     * Constructor.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record one duration.
+     *
+     * @param duration The duration in nanoseconds, the negative ones are recorded as 0.
+     */
+    public void record(long duration) {
+        long value = Math.max(0, duration);
+
+        counts[bucket(value)].increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Record one duration.
+     *
+     * @param duration The duration.
+     * @param unit     The duration unit.
+     */
+    public void record(long duration, TimeUnit unit) {
+        CheckUtils.checkNull("unit", unit);
+
+        record(unit.toNanos(duration));
+    }
+
+    /**
+     * Get the durations recorded since the creation or the last reset.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot getSnapshot() {
+        return takeSnapshot(false);
+    }
+
+    /**
+     * Get the durations recorded since the creation or the last reset, and reset the histogram to start a new
+     * interval. The durations recorded while the snapshot is taken go to one of both intervals.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot getSnapshotAndReset() {
+        return takeSnapshot(true);
+    }
+
+    /**
+     * Remove all the recorded durations.
+     */
+    public void reset() {
+        takeSnapshot(true);
+    }
+
+    /**
+     * Copy the counters, and reset them if requested.
+     *
+     * @param reset True to reset the counters.
+     * @return The snapshot.
+     */
+    private Snapshot takeSnapshot(boolean reset) {
+        long[] bucketCounts = new long[BUCKETS];
+        long count = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = (reset) ? counts[i].sumThenReset() : counts[i].sum();
+            count += bucketCounts[i];
+        }
+
+        long totalValue = (reset) ? total.sumThenReset() : total.sum();
+        long maxValue = (reset) ? max.getThenReset() : max.get();
+
+        // The max can miss the durations counted in the buckets, or have others recorded after reading them
+        int highest = BUCKETS - 1;
+        while ((highest >= 0) && (bucketCounts[highest] == 0)) {
+            highest--;
+        }
+        maxValue = (highest >= 0) ? Math.max(lowestValue(highest), Math.min(maxValue, highestValue(highest))) : 0;
+        return new Snapshot(bucketCounts, count, totalValue, maxValue);
+    }
+
+    /**
+     * Get the bucket of one value.
+     *
+     * @param value The value, not negative.
+     * @return The bucket index.
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get the smallest value of one bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The smallest value.
+     */
+    private static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+    }
+
+    /**
+     * Get the biggest value of one bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The biggest value.
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        return lowestValue(bucket) + (1L << shift) - 1;
+    }
+
+    /**
+     * The durations recorded by a histogram in one interval. This class is immutable.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        /**
+         * Constructor.
+         *
+         * @param counts The count of each bucket.
+         * @param count  The number of durations.
+         * @param total  The sum of the durations.
+         * @param max    The longest duration.
+         */
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The number of durations.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The longest duration in nanoseconds, 0 if there isn't any.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The mean duration in nanoseconds, 0 if there isn't any.
+         */
+        public double getMean() {
+            return (count > 0) ? (double) total / count : 0;
+        }
+
+        /**
+         * Get the duration that is not exceeded by a percentage of the durations.
+         *
+         * @param percentile The percentage, from 0 to 100.
+         * @return The duration in nanoseconds, 0 if there isn't any.
+         */
+        public long getPercentile(double percentile) {
+            CheckUtils.checkDouble("percentile", percentile, 0, 100);
+
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long accumulated = 0;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The median duration in nanoseconds.
+         */
+        public long getP50() {
+            return getPercentile(50);
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The 90th percentile duration in nanoseconds.
+         */
+        public long getP90() {
+            return getPercentile(90);
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The 99th percentile duration in nanoseconds.
+         */
+        public long getP99() {
+            return getPercentile(99);
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The 99.9th percentile duration in nanoseconds.
+         */
+        public long getP999() {
+            return getPercentile(99.9);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot [count=" + count + ", mean=" + getMean() + ", p50=" + getP50() + ", p90=" + getP90() + ", p99=" + getP99()
+                    + ", p999=" + getP999() + ", max=" + max + "]";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.albertoteloko.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A named timer, that records durations into a {@link LatencyHistogram}. It's created and shared through a
+ * {@link TimerRegistry}, and it can be used by many threads at the same time.
+ */
+public final class LatencyTimer {
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Constructor.
+     *
+     * @param name The timer name.
+     */
+    LatencyTimer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The timer name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Start a new stop watch, to record its time later with {@link #record(StopWatch)}.
+     *
+     * @return The started stop watch.
+     */
+    public StopWatch start() {
+        return new StopWatch().start();
+    }
+
+    /**
+     * Record the elapse time of a stop watch. The stop watch can be reused, or a lap can be recorded instead.
+     *
+     * @param watch The stop watch.
+     * @throws IllegalArgumentException If the stop watch haven't started yet.
+     */
+    public void record(StopWatch watch) {
+        CheckUtils.checkNull("watch", watch);
+
+        histogram.record(watch.getElapseNanoTime());
+    }
+
+    /**
+     * Record one duration. It doesn't allocate memory.
+     *
+     * @param duration The duration in nanoseconds.
+     */
+    public void record(long duration) {
+        histogram.record(duration);
+    }
+
+    /**
+     * Record one duration.
+     *
+     * @param duration The duration.
+     * @param unit     The duration unit.
+     */
+    public void record(long duration, TimeUnit unit) {
+        histogram.record(duration, unit);
+    }
+
+    /**
+     * Get the durations recorded since the creation or the last reset.
+     *
+     * @return The snapshot.
+     */
+    public LatencyHistogram.Snapshot getSnapshot() {
+        return histogram.getSnapshot();
+    }
+
+    /**
+     * Get the durations recorded since the creation or the last reset, and start a new interval.
+     *
+     * @return The snapshot.
+     */
+    public LatencyHistogram.Snapshot getSnapshotAndReset() {
+        return histogram.getSnapshotAndReset();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyTimer [name=" + name + ", " + histogram.getSnapshot() + "]";
+    }
+}
@@ -0,0 +1,175 @@
+package com.albertoteloko.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded cache of compiled regular expressions, keyed by the expression and the flags.
+ * <p>
+ * The lookups never lock, so the cache can be shared by many threads on their hot paths. When the cache is full a
+ * pattern is discarded to make room for the new one with the clock algorithm: each lookup marks its pattern as used,
+ * and a hand that goes around the patterns clears the marks it finds until it reaches a pattern not used since the hand
+ * passed it, so the patterns used often stay in the cache. The hand goes on from where the last eviction stopped, so
+ * each eviction only takes a few steps and all the patterns get the same chance. Only the evictions are locked, and the
+ * size only goes over the max size while some threads are adding patterns at the same time.
+ */
+public final class PatternCache {
+    private final int maxSize;
+    private final ConcurrentHashMap<Key, Entry> patterns;
+    // The clock hand, guarded by the cache lock
+    private Iterator<Map.Entry<Key, Entry>> hand;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize The max number of patterns kept.
+     */
+    public PatternCache(int maxSize) {
+        CheckUtils.checkIntBigger("maxSize", maxSize, 1);
+
+        this.maxSize = maxSize;
+        this.patterns = new ConcurrentHashMap<Key, Entry>();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The max number of patterns kept.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Return the compiled pattern of a regular expression, compiling it only if it's not in the cache.
+     *
+     * @param expression The regular expression.
+     * @return The compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid.
+     */
+    public Pattern get(String expression) {
+        return get(expression, 0);
+    }
+
+    /**
+     * Return the compiled pattern of a regular expression, compiling it only if it's not in the cache.
+     *
+     * @param expression The regular expression.
+     * @param flags      The flags of {@link Pattern#compile(String, int)}.
+     * @return The compiled pattern.
+     * @throws java.util.regex.PatternSyntaxException If the expression is not valid.
+     */
+    public Pattern get(String expression, int flags) {
+        CheckUtils.checkNull("expression", expression);
+
+        Key key = new Key(expression, flags);
+        Entry entry = patterns.get(key);
+        if (entry != null) {
+            // Only written when it changes, so the hot patterns don't keep invalidating the cache line
+            if (!entry.used) {
+                entry.used = true;
+            }
+            return entry.pattern;
+        }
+
+        Entry created = new Entry(Pattern.compile(expression, flags));
+        while (patterns.size() >= maxSize) {
+            if (!evict()) {
+                break;
+            }
+        }
+
+        Entry previous = patterns.putIfAbsent(key, created);
+        return (previous != null) ? previous.pattern : created.pattern;
+    }
+
+    /**
+     * Discard one pattern, the next one from the hand not used since the hand passed it. The marks of the used ones are
+     * cleared on the way, so the hand always finds one before going twice around the patterns.
+     *
+     * @return True if a pattern was discarded, False if the cache was emptied by other threads.
+     */
+    private synchronized boolean evict() {
+        // Each turn of the hand clears all the marks, so two turns are enough while the other threads don't add more
+        for (int steps = 2 * (patterns.size() + 1); steps > 0; steps--) {
+            if ((hand == null) || (!hand.hasNext())) {
+                hand = patterns.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    return false;
+                }
+            }
+
+            Map.Entry<Key, Entry> candidate = hand.next();
+            Entry value = candidate.getValue();
+
+            if (value.used) {
+                value.used = false;
+            } else if (patterns.remove(candidate.getKey(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of patterns in the cache.
+     *
+     * @return The number of patterns.
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * Discard all the patterns.
+     */
+    public synchronized void clear() {
+        patterns.clear();
+        hand = null;
+    }
+
+    /**
+     * One compiled pattern, with the mark of the clock algorithm.
+     */
+    private static final class Entry {
+        private final Pattern pattern;
+        private volatile boolean used;
+
+        private Entry(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * The key of one pattern.
+     */
+    private static final class Key {
+        private final String expression;
+        private final int flags;
+
+        private Key(String expression, int flags) {
+            this.expression = expression;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return (flags == other.flags) && (expression.equals(other.expression));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * expression.hashCode() + flags;
+        }
+    }
+}
@@ -2,43 +2,208 @@ package com.albertoteloko.utils;
 
 import org.slf4j.Logger;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * This class measures the time elapsed since it's started, with System.nanoTime(), so it doesn't jump with the clock
+ * adjustments and it has sub millisecond resolution.
+ * <p>
+ * The watch can be suspended and resumed, and the suspended time is not counted. A split returns the elapsed time
+ * without changing anything, and a lap returns the time since the previous lap, or since the start, and adds it to the
+ * lap statistics. The methods are synchronized, so the watch can be shared between threads.
+ */
 public class StopWatch {
-    // The default formatter
+    // The default formatter. It's not thread safe, DecimalFormatter.DEFAULT has the same output and it is
     public static final DecimalFormat DEFAULT_FORMATTER = new DecimalFormat("#.###");
-    // The start time, atomic just in case
-    private final AtomicLong startTime = new AtomicLong(-1);
+    // The value of startTime and suspendTime when the watch is not started or not suspended
+    private static final long NONE = Long.MIN_VALUE;
+    // The lower case names of the time units, indexed by ordinal
+    private static final String[] UNIT_NAMES = getUnitNames();
+
+    // The times are System.nanoTime() values and durations in nanoseconds
+    private long startTime = NONE;
+    private long suspendTime = NONE;
+    private long suspendedTime;
+    private long lapStart;
+    private long lapCount;
+    private long lastLap;
+    private long totalLaps;
+    private long minLap;
+    private long maxLap;
+    // The builder of the formatted times, reused while holding the lock
+    private final StringBuilder builder = new StringBuilder(64);
+
+    /**
+     * Start the stop watch. Called it again you restart the stop watch, removing the laps
+     */
+    public synchronized StopWatch start() {
+        startTime = System.nanoTime();
+        suspendTime = NONE;
+        suspendedTime = 0;
+        lapStart = 0;
+        lapCount = 0;
+        lastLap = 0;
+        totalLaps = 0;
+        minLap = 0;
+        maxLap = 0;
+        return this;
+    }
 
     /**
-     * Start the stop watch. Called it again you restart the stop watch
+     * Suspend the stop watch, the time until it's resumed is not counted.
+     *
+     * @return This to concatenate calls.
+     * @throws IllegalArgumentException If the stop watch haven't started yet or it's already suspended.
+     */
+    public synchronized StopWatch suspend() {
+        checkStarted();
+        if (suspendTime != NONE) {
+            throw new IllegalArgumentException("The stop watch is already suspended");
+        }
+
+        suspendTime = System.nanoTime();
+        return this;
+    }
+
+    /**
+     * Resume the stop watch after a suspension.
+     *
+     * @return This to concatenate calls.
+     * @throws IllegalArgumentException If the stop watch haven't started yet or it isn't suspended.
      */
-    public StopWatch start() {
-        startTime.set(System.currentTimeMillis());
+    public synchronized StopWatch resume() {
+        checkStarted();
+        if (suspendTime == NONE) {
+            throw new IllegalArgumentException("The stop watch isn't suspended");
+        }
+
+        suspendedTime += System.nanoTime() - suspendTime;
+        suspendTime = NONE;
         return this;
     }
 
+    /**
+     * Check if the stop watch is started.
+     *
+     * @return True if it's started, False if it isn't.
+     */
+    public synchronized boolean isStarted() {
+        return startTime != NONE;
+    }
+
+    /**
+     * Check if the stop watch is suspended.
+     *
+     * @return True if it's suspended, False if it isn't.
+     */
+    public synchronized boolean isSuspended() {
+        return suspendTime != NONE;
+    }
+
+    /**
+     * Get the elapse time since the start, without changing the stop watch.
+     *
+     * @return The elapse time in nano seconds.
+     */
+    public long split() {
+        return getElapseNanoTime();
+    }
+
+    /**
+     * Finish a lap, and start the next one.
+     *
+     * @return The lap time in nano seconds, since the previous lap or the start.
+     */
+    public synchronized long lap() {
+        long elapsed = getElapseNanoTime();
+        long lap = elapsed - lapStart;
+
+        lapStart = elapsed;
+        minLap = (lapCount == 0) ? lap : Math.min(minLap, lap);
+        maxLap = Math.max(maxLap, lap);
+        totalLaps += lap;
+        lastLap = lap;
+        lapCount++;
+        return lap;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The number of laps.
+     */
+    public synchronized long getLapCount() {
+        return lapCount;
+    }
+
+    /**
+     * Get the time of the last lap.
+     *
+     * @param unit The time unit preferred to get the calculation
+     * @return The lap time in the unit provided, 0 if there isn't any lap.
+     */
+    public synchronized double getLastLapTime(TimeUnit unit) {
+        return convertNanosecondTime(unit, lastLap);
+    }
+
+    /**
+     * Get the time of the shortest lap.
+     *
+     * @param unit The time unit preferred to get the calculation
+     * @return The lap time in the unit provided, 0 if there isn't any lap.
+     */
+    public synchronized double getMinLapTime(TimeUnit unit) {
+        return convertNanosecondTime(unit, minLap);
+    }
+
+    /**
+     * Get the time of the longest lap.
+     *
+     * @param unit The time unit preferred to get the calculation
+     * @return The lap time in the unit provided, 0 if there isn't any lap.
+     */
+    public synchronized double getMaxLapTime(TimeUnit unit) {
+        return convertNanosecondTime(unit, maxLap);
+    }
+
+    /**
+     * Get the mean time of the laps.
+     *
+     * @param unit The time unit preferred to get the calculation
+     * @return The lap time in the unit provided, 0 if there isn't any lap.
+     */
+    public synchronized double getMeanLapTime(TimeUnit unit) {
+        return (lapCount > 0) ? convertNanosecondTime(unit, totalLaps) / lapCount : convertNanosecondTime(unit, 0);
+    }
+
     /**
      * Get the elapse time takes since you call the start method.
      *
      * @return The elapse time in milli seconds.
      */
     public long getElapseTime() {
-        long start = startTime.get();
-        if (start > 0) {
-            return System.currentTimeMillis() - start;
-        } else {
-            throw new IllegalArgumentException("The stop watch haven't started yet");
-        }
+        return TimeUnit.NANOSECONDS.toMillis(getElapseNanoTime());
+    }
+
+    /**
+     * Get the elapse time takes since you call the start method.
+     *
+     * @return The elapse time in nano seconds.
+     */
+    public synchronized long getElapseNanoTime() {
+        checkStarted();
+
+        long now = (suspendTime != NONE) ? suspendTime : System.nanoTime();
+        return now - startTime - suspendedTime;
     }
 
     /**
      * Get the elapse time takes since you call the start method.
      */
     public String getDividedElapseTime() {
-        return TimeUtils.getIntervalInfo(Math.round(getElapseTime(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+        return getIntervalInfo("", getElapseNanoTime());
     }
 
     /**
@@ -48,10 +213,7 @@ public class StopWatch {
      * @return The elapse time in the unit provided
      */
     public double getElapseTime(TimeUnit unit) {
-        CheckUtils.checkNull("unit", unit);
-
-        return convertMillisecondTime(unit, getElapseTime());
-
+        return convertNanosecondTime(unit, getElapseNanoTime());
     }
 
     /**
@@ -61,15 +223,28 @@ public class StopWatch {
      * @return The elapse time in the unit provided in a pretty way using the default formatter: #.###
      */
     public String getElapseTimeFormatted(TimeUnit unit) {
-        return getElapseTimeFormatted(unit, DEFAULT_FORMATTER);
+        return formatElapseTime(unit, DecimalFormatter.DEFAULT);
+
+    }
+
+    /**
+     * Get the elapse time takes since you call the start method.
+     *
+     * @param unit      The time unit preferred to get the calculation
+     * @param formatter The decimal formatter, it can be shared between threads.
+     * @return The elapse time in the unit provided in a pretty way
+     */
+    public String formatElapseTime(TimeUnit unit, DecimalFormatter formatter) {
+        CheckUtils.checkNull("formatter", formatter);
 
+        return formatter.format(getElapseTime(unit));
     }
 
     /**
      * Get the elapse time takes since you call the start method.
      *
      * @param unit      The time unit preferred to get the calculation
-     * @param formatter The decimal formated designated to enhance the number presentation.
+     * @param formatter The decimal formated designated to enhance the number presentation. It's not thread safe.
      * @return The elapse time in the unit provided in a pretty way
      */
     public String getElapseTimeFormatted(TimeUnit unit, DecimalFormat formatter) {
@@ -106,10 +281,9 @@ public class StopWatch {
         String text = "{} in {}";
 
         if (unit == null) {
-            time = TimeUtils.getIntervalInfo(Math.round(getElapseTime(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+            time = getIntervalInfo("", getElapseNanoTime());
         } else {
-            time = getElapseTimeFormatted(unit);
-            time = time + " " + unit.toString().toLowerCase();
+            time = getFormattedTime(unit);
         }
 
         log(log, level, text, eventName, time);
@@ -117,7 +291,68 @@ public class StopWatch {
 
     @Override
     public String toString() {
-        return "in " + TimeUtils.getIntervalInfo(Math.round(getElapseTime(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+        return getIntervalInfo("in ", getElapseNanoTime());
+    }
+
+    /**
+     * Check if the stop watch is started.
+     */
+    private void checkStarted() {
+        if (startTime == NONE) {
+            throw new IllegalArgumentException("The stop watch haven't started yet");
+        }
+    }
+
+    /**
+     * Divide a time into units, in milliseconds or bigger units if it's one millisecond or more, so the sub
+     * millisecond times are not shown as 0. The units are written into the reused builder, so only the result string
+     * is created.
+     *
+     * @param prefix The text before the time.
+     * @param time   The time in nanosecond scale
+     * @return The time divided into units.
+     */
+    private synchronized String getIntervalInfo(String prefix, long time) {
+        builder.setLength(0);
+        builder.append(prefix);
+
+        try {
+            if (time < TimeUnit.MILLISECONDS.toNanos(1)) {
+                TimeUtils.appendIntervalInfo(time, TimeUnit.NANOSECONDS, builder);
+            } else {
+                TimeUtils.appendIntervalInfo(TimeUnit.NANOSECONDS.toMillis(time), TimeUnit.MILLISECONDS, builder);
+            }
+        } catch (IOException e) {
+            ExceptionUtils.throwRuntimeException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Format the elapse time in one unit, followed by the unit name, into the reused builder.
+     *
+     * @param unit The time unit.
+     * @return The formatted time.
+     */
+    private synchronized String getFormattedTime(TimeUnit unit) {
+        builder.setLength(0);
+        DecimalFormatter.DEFAULT.format(getElapseTime(unit), builder);
+        return builder.append(' ').append(UNIT_NAMES[unit.ordinal()]).toString();
+    }
+
+    /**
+     * Get the lower case names of the time units.
+     *
+     * @return The names indexed by ordinal.
+     */
+    private static String[] getUnitNames() {
+        TimeUnit[] units = TimeUnit.values();
+        String[] names = new String[units.length];
+
+        for (TimeUnit unit : units) {
+            names[unit.ordinal()] = unit.toString().toLowerCase();
+        }
+        return names;
     }
 
     /**
@@ -127,10 +362,10 @@ public class StopWatch {
      * @param time The time in nanosecond scale
      * @return The time converted into the specified unit
      */
-    private double convertMillisecondTime(TimeUnit unit, long time) {
-        double scale = TimeUnit.MILLISECONDS.convert(1, unit);
+    private static double convertNanosecondTime(TimeUnit unit, long time) {
+        CheckUtils.checkNull("unit", unit);
 
-        return time / scale;
+        return time / (double) unit.toNanos(1);
     }
 
     /**
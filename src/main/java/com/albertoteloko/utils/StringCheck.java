@@ -0,0 +1,67 @@
+package com.albertoteloko.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * A precompiled check of the strings that must match a pattern, created with {@link CheckUtils#pattern(String)}.
+ * <p>
+ * The pattern is compiled when the check is created, so checking a string only runs the matcher. This class is
+ * immutable and can be shared by many threads.
+ */
+public final class StringCheck {
+    private final Pattern pattern;
+    private final String patternDescription;
+
+    /**
+     * Constructor.
+     *
+     * @param pattern            The compiled pattern.
+     * @param patternDescription The pattern description, null to show the pattern in the errors.
+     */
+    StringCheck(Pattern pattern, String patternDescription) {
+        this.pattern = pattern;
+        this.patternDescription = patternDescription;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The compiled pattern.
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Check if one string matches the pattern.
+     *
+     * @param value The string.
+     * @return True if it matches, False if it doesn't.
+     * @throws NullPointerException If the value is null.
+     */
+    public boolean matches(CharSequence value) {
+        CheckUtils.checkNull("value", value);
+
+        return pattern.matcher(value).matches();
+    }
+
+    /**
+     * Check one string. And if it is null or not match the pattern an exception will be throw.
+     *
+     * @param name  The param name.
+     * @param value The param value.
+     * @throws NullPointerException     If the name is null, If the value is null.
+     * @throws IllegalArgumentException If the value doesn't match the pattern.
+     */
+    public void check(String name, String value) {
+        CheckUtils.checkNull("name", name);
+        CheckUtils.checkNull("value", value);
+
+        CheckUtils.checkStringPattern(name, value, pattern, patternDescription);
+    }
+
+    @Override
+    public String toString() {
+        return "StringCheck [pattern=" + pattern.pattern() + ((patternDescription != null) ? ", description=" + patternDescription : "") + "]";
+    }
+}
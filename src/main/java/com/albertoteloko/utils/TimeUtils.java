@@ -1,59 +1,105 @@
 package com.albertoteloko.utils;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 public final class TimeUtils {
 	private TimeUtils() {
 	}
 
-	public static String getIntervalInfo(long intervalDuration, TimeUnit unit) {
-		TimeUnit[] timeUnits = TimeUnit.values();
-
-		long[] values = new long[timeUnits.length];
-
-		for (int i = 0; i < values.length; i++) {
-			values[i] = (i == unit.ordinal()) ? intervalDuration : 0;
-		}
-
-		for (int i = 0; i < timeUnits.length - 1; i++) {
-			long value = values[i];
-			long nexUnitValue = timeUnits[i].convert(1, timeUnits[i + 1]);
+	// The units from the biggest to the smallest, and their names indexed by ordinal
+	private static final TimeUnit[] UNITS_DESCENDING = getUnitsDescending();
+	private static final String[] PLURAL_NAMES = getUnitNames(false);
+	private static final String[] SINGULAR_NAMES = getUnitNames(true);
 
-			long nextUnitDelta = value / nexUnitValue;
-			long remainder = value % nexUnitValue;
+	public static String getIntervalInfo(long intervalDuration, TimeUnit unit) {
+		StringBuilder builder = new StringBuilder(64);
 
-			values[i] = remainder;
-			values[i + 1] = values[i + 1] + nextUnitDelta;
+		try {
+			appendIntervalInfo(intervalDuration, unit, builder);
+		} catch (IOException e) {
+			ExceptionUtils.throwRuntimeException(e);
 		}
+		return builder.toString();
+	}
 
-		StringBuilder builder = new StringBuilder();
+	/**
+	 * Write an interval divided into units, as {@link #getIntervalInfo(long, TimeUnit)} does, without allocating
+	 * memory. It's done from the biggest unit to the given one, so no intermediate array nor string is created.
+	 * 
+	 * @param intervalDuration The interval duration.
+	 * @param unit The interval unit.
+	 * @param output The output where the interval is appended.
+	 * @throws IOException If the output fails.
+	 */
+	public static void appendIntervalInfo(long intervalDuration, TimeUnit unit, Appendable output) throws IOException {
+		CheckUtils.checkNull("unit", unit);
+		CheckUtils.checkNull("output", output);
+
+		long remainder = intervalDuration;
+		boolean empty = true;
+
+		for (TimeUnit unitTemp : UNITS_DESCENDING) {
+			if (unitTemp.compareTo(unit) < 0) {
+				break;
+			}
 
-		for (int i = (timeUnits.length - 1); i >= 0; i--) {
-			long valueTemp = values[i];
-			TimeUnit unitTemp = timeUnits[i];
+			long unitSize = unit.convert(1, unitTemp);
+			long valueTemp = remainder / unitSize;
+			remainder = remainder % unitSize;
 
 			if (valueTemp > 0) {
-				if (builder.length() > 0) {
-					builder.append(", ");
+				if (!empty) {
+					output.append(", ");
 				}
-				builder.append(getValueString(valueTemp, unitTemp));
+				appendValue(output, valueTemp, unitTemp);
+				empty = false;
 			}
 		}
 
-		if (builder.length() == 0) {
-			builder.append(getValueString(intervalDuration, unit));
+		if (empty) {
+			appendValue(output, intervalDuration, unit);
 		}
+	}
 
-		return builder.toString();
+	private static void appendValue(Appendable output, long value, TimeUnit unit) throws IOException {
+		if (output instanceof StringBuilder) {
+			((StringBuilder) output).append(value);
+		} else {
+			if (value < 0) {
+				output.append('-');
+			}
+
+			long power = 1;
+			while (power <= Math.abs(value / 10)) {
+				power *= 10;
+			}
+			for (; power > 0; power /= 10) {
+				output.append((char) ('0' + Math.abs(value / power % 10)));
+			}
+		}
+
+		output.append(' ').append((value == 1) ? SINGULAR_NAMES[unit.ordinal()] : PLURAL_NAMES[unit.ordinal()]);
 	}
 
-	private static String getValueString(long value, TimeUnit unit) {
-		String result = value + " " + unit.toString().toLowerCase();
+	private static TimeUnit[] getUnitsDescending() {
+		TimeUnit[] timeUnits = TimeUnit.values();
+		TimeUnit[] result = new TimeUnit[timeUnits.length];
 
-		if (value == 1) {
-			result = result.substring(0, result.length() - 1);
+		for (int i = 0; i < timeUnits.length; i++) {
+			result[i] = timeUnits[timeUnits.length - 1 - i];
 		}
+		return result;
+	}
 
+	private static String[] getUnitNames(boolean singular) {
+		TimeUnit[] timeUnits = TimeUnit.values();
+		String[] result = new String[timeUnits.length];
+
+		for (int i = 0; i < timeUnits.length; i++) {
+			String name = timeUnits[i].toString().toLowerCase();
+			result[i] = (singular) ? name.substring(0, name.length() - 1) : name;
+		}
 		return result;
 	}
 }
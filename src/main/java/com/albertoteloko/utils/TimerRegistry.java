@@ -0,0 +1,94 @@
+package com.albertoteloko.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This class keeps the timers of an application by name, to read the percentiles of all of them at once.
+ * <p>
+ * A timer is created the first time it's requested, and the same instance is returned after that. The callers on a hot
+ * path should keep the timer instead of looking it up for each duration. This class is thread safe.
+ */
+public final class TimerRegistry {
+    private final ConcurrentMap<String, LatencyTimer> timers = new ConcurrentHashMap<String, LatencyTimer>();
+
+    /**
+     * Get a timer, creating it if it doesn't exist.
+     *
+     * @param name The timer name.
+     * @return The timer.
+     */
+    public LatencyTimer getTimer(String name) {
+        CheckUtils.checkString("name", name);
+
+        LatencyTimer timer = timers.get(name);
+        if (timer == null) {
+            LatencyTimer created = new LatencyTimer(name);
+            timer = timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * Remove a timer. The callers that keep it can still use it, but it's not reported anymore.
+     *
+     * @param name The timer name.
+     * @return True if it was removed, False if it didn't exist.
+     */
+    public boolean removeTimer(String name) {
+        CheckUtils.checkNull("name", name);
+
+        return timers.remove(name) != null;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The sorted names of the timers.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<String>(timers.keySet()));
+    }
+
+    /**
+     * Get the durations recorded by each timer since its creation or its last reset.
+     *
+     * @return The snapshots sorted by timer name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> getSnapshots() {
+        return takeSnapshots(false);
+    }
+
+    /**
+     * Get the durations recorded by each timer since its creation or its last reset, and start a new interval in all
+     * of them.
+     *
+     * @return The snapshots sorted by timer name.
+     */
+    public Map<String, LatencyHistogram.Snapshot> getSnapshotsAndReset() {
+        return takeSnapshots(true);
+    }
+
+    /**
+     * Take the snapshot of each timer.
+     *
+     * @param reset True to start a new interval.
+     * @return The snapshots sorted by timer name.
+     */
+    private Map<String, LatencyHistogram.Snapshot> takeSnapshots(boolean reset) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<String, LatencyHistogram.Snapshot>();
+
+        for (LatencyTimer timer : timers.values()) {
+            snapshots.put(timer.getName(), (reset) ? timer.getSnapshotAndReset() : timer.getSnapshot());
+        }
+        return Collections.unmodifiableMap(snapshots);
+    }
+}
@@ -0,0 +1,331 @@
+package com.albertoteloko.utils.io;
+
+import com.albertoteloko.utils.CheckUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A read only char sequence over a memory mapped file.
+ * <p>
+ * The file is never copied into the heap, the chars are decoded lazily when they are read, so the OS page cache is
+ * shared by all the JVMs that map the same file. The supported charsets are US-ASCII, ISO-8859-1 and UTF-8. For
+ * UTF-8 the file is scanned once when it's mapped to know its length and where each block of chars starts, then the
+ * blocks with non ASCII chars are decoded on demand into a small cache. Malformed bytes are read as U+FFFD.
+ * <p>
+ * This class is thread safe.
+ */
+public class MappedCharSequence implements CharSequence {
+    // The max number of bytes mapped in one buffer
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    // The number of chars of each UTF-8 block
+    private static final int BLOCK_SHIFT = 10;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    // The number of decoded UTF-8 blocks kept in memory
+    private static final int CACHE_SIZE = 64;
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private final Charset charset;
+    private final int length;
+    // UTF-8 only: the byte position of each block, and the blocks with non ASCII chars or starting with a low surrogate
+    private final long[] blockPositions;
+    private final BitSet nonAsciiBlocks;
+    private final BitSet splitBlocks;
+    private final DecodedBlock[] cache;
+
+    /**
+     * Constructor.
+     *
+     * @param file    The file to map.
+     * @param charset The file charset.
+     * @throws IOException              If the file can't be mapped.
+     * @throws IllegalArgumentException If the charset is not supported or the file has more than
+     *                                  {@link Integer#MAX_VALUE} chars.
+     */
+    public MappedCharSequence(File file, Charset charset) throws IOException {
+        CheckUtils.checkNull("file", file);
+        CheckUtils.checkNull("charset", charset);
+
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("The charset " + charset + " is not supported.");
+        }
+
+        this.charset = charset;
+
+        try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+            size = channel.size();
+            segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, size - position));
+            }
+        }
+
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            BlockIndex index = new BlockIndex();
+            length = index.length;
+            blockPositions = index.positions;
+            nonAsciiBlocks = index.nonAscii;
+            splitBlocks = index.split;
+            cache = new DecodedBlock[CACHE_SIZE];
+        } else {
+            checkLength(size);
+            length = (int) size;
+            blockPositions = null;
+            nonAsciiBlocks = null;
+            splitBlocks = null;
+            cache = null;
+        }
+    }
+
+    /**
+     * Check if one charset can be mapped.
+     *
+     * @param charset The charset.
+     * @return True if it's supported, False if isn't.
+     */
+    public static boolean isSupported(Charset charset) {
+        return StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The file charset.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The file size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if ((index < 0) || (index >= length)) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+
+        if (cache == null) {
+            byte value = get(index);
+            return ((value < 0) && (StandardCharsets.US_ASCII.equals(charset))) ? REPLACEMENT_CHAR : (char) (value & 0xFF);
+        }
+
+        int block = index >>> BLOCK_SHIFT;
+        if (!nonAsciiBlocks.get(block)) {
+            return (char) get(blockPositions[block] + (index & BLOCK_MASK));
+        }
+
+        DecodedBlock decoded = cache[block & (CACHE_SIZE - 1)];
+        if ((decoded == null) || (decoded.block != block)) {
+            decoded = decodeBlock(block);
+            cache[block & (CACHE_SIZE - 1)] = decoded;
+        }
+        return decoded.chars[index & BLOCK_MASK];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if ((start < 0) || (end > length) || (start > end)) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(charAt(i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+
+    /**
+     * Read one byte of the file.
+     *
+     * @param position The byte position.
+     * @return The byte.
+     */
+    private byte get(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+
+    /**
+     * Decode the UTF-8 code point in one position, the malformed bytes are decoded one by one as U+FFFD.
+     *
+     * @param position The byte position.
+     * @return The code point in the lower 24 bits and its number of bytes in the upper 8 bits.
+     */
+    private int decode(long position) {
+        int b0 = get(position) & 0xFF;
+
+        if (b0 < 0x80) {
+            return b0 | (1 << 24);
+        }
+
+        int count;
+        int min;
+        int max;
+        int codePoint;
+
+        if ((b0 >= 0xC2) && (b0 <= 0xDF)) {
+            count = 1;
+            codePoint = b0 & 0x1F;
+            min = 0x80;
+            max = 0xBF;
+        } else if ((b0 >= 0xE0) && (b0 <= 0xEF)) {
+            count = 2;
+            codePoint = b0 & 0x0F;
+            min = (b0 == 0xE0) ? 0xA0 : 0x80;
+            max = (b0 == 0xED) ? 0x9F : 0xBF;
+        } else if ((b0 >= 0xF0) && (b0 <= 0xF4)) {
+            count = 3;
+            codePoint = b0 & 0x07;
+            min = (b0 == 0xF0) ? 0x90 : 0x80;
+            max = (b0 == 0xF4) ? 0x8F : 0xBF;
+        } else {
+            return REPLACEMENT_CHAR | (1 << 24);
+        }
+
+        if (position + count >= size) {
+            return REPLACEMENT_CHAR | (1 << 24);
+        }
+
+        for (int i = 1; i <= count; i++) {
+            int b = get(position + i) & 0xFF;
+
+            if ((b < min) || (b > max)) {
+                return REPLACEMENT_CHAR | (1 << 24);
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            min = 0x80;
+            max = 0xBF;
+        }
+        return codePoint | ((count + 1) << 24);
+    }
+
+    /**
+     * Decode all the chars of one UTF-8 block.
+     *
+     * @param block The block number.
+     * @return The decoded block.
+     */
+    private DecodedBlock decodeBlock(int block) {
+        int count = Math.min(BLOCK_SIZE, length - (block << BLOCK_SHIFT));
+        char[] chars = new char[count];
+        long position = blockPositions[block];
+        int index = 0;
+
+        if (splitBlocks.get(block)) {
+            int decoded = decode(position);
+            chars[index++] = Character.lowSurrogate(decoded & 0xFFFFFF);
+            position += decoded >>> 24;
+        }
+
+        while (index < count) {
+            int decoded = decode(position);
+            int codePoint = decoded & 0xFFFFFF;
+
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                chars[index++] = Character.highSurrogate(codePoint);
+                if (index < count) {
+                    chars[index++] = Character.lowSurrogate(codePoint);
+                }
+            } else {
+                chars[index++] = (char) codePoint;
+            }
+            position += decoded >>> 24;
+        }
+        return new DecodedBlock(block, chars);
+    }
+
+    /**
+     * Check if the file has a valid length.
+     *
+     * @param length The number of chars.
+     */
+    private static void checkLength(long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The file can't have more than " + Integer.MAX_VALUE + " chars.");
+        }
+    }
+
+    /**
+     * The UTF-8 block positions of the file, built with one scan.
+     */
+    private class BlockIndex {
+        private long[] positions = new long[16];
+        private final BitSet nonAscii = new BitSet();
+        private final BitSet split = new BitSet();
+        private int blocks;
+        private int length;
+
+        private BlockIndex() {
+            long position = 0;
+            long chars = 0;
+
+            while (position < size) {
+                int decoded = decode(position);
+                int codePoint = decoded & 0xFFFFFF;
+                long lastChar = chars + (Character.isSupplementaryCodePoint(codePoint) ? 1 : 0);
+
+                while ((lastChar >>> BLOCK_SHIFT) >= blocks) {
+                    if (blocks == positions.length) {
+                        positions = Arrays.copyOf(positions, blocks * 2);
+                    }
+                    split.set(blocks, ((long) blocks << BLOCK_SHIFT) != chars);
+                    positions[blocks++] = position;
+                }
+
+                if ((decoded >>> 24 > 1) || (codePoint >= 0x80)) {
+                    nonAscii.set((int) (chars >>> BLOCK_SHIFT), (int) (lastChar >>> BLOCK_SHIFT) + 1);
+                }
+
+                chars = lastChar + 1;
+                position += decoded >>> 24;
+                checkLength(chars);
+            }
+
+            positions = Arrays.copyOf(positions, blocks);
+            length = (int) chars;
+        }
+    }
+
+    /**
+     * The chars of one UTF-8 block.
+     */
+    private static class DecodedBlock {
+        private final int block;
+        private final char[] chars;
+
+        private DecodedBlock(int block, char[] chars) {
+            this.block = block;
+            this.chars = chars;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.albertoteloko.utils.selector;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class search byte strings inside a region of a byte buffer.
+ * <p>
+ * The first byte of the string is found checking eight bytes at once: the bytes are read as a little endian long and
+ * the ones equals to the searched byte are turned into zero bytes, that are found with a few arithmetic operations.
+ * Only the candidates found this way are compared byte by byte.
+ */
+final class ByteSearch {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private ByteSearch() {
+    }
+
+    /**
+     * Find a byte string inside a region of a buffer.
+     *
+     * @param buffer     The buffer, it must be in little endian order.
+     * @param string     The byte string to find.
+     * @param from       The first position where the string can start.
+     * @param to         The position where the string must be ended.
+     * @param ignoreCase True to compare the ASCII letters ignoring the case.
+     * @return The position of the string, -1 if it's not found.
+     */
+    static int indexOf(ByteBuffer buffer, byte[] string, int from, int to, boolean ignoreCase) {
+        if (string.length == 0) {
+            return (from <= to) ? from : -1;
+        }
+
+        byte first = string[0];
+        byte otherFirst = (ignoreCase) ? switchCase(first) : first;
+        int last = to - string.length;
+        int position = from;
+
+        while (position <= last) {
+            int candidate = indexOf(buffer, first, otherFirst, position, last + 1);
+            if (candidate < 0) {
+                return -1;
+            }
+            if (regionMatches(buffer, candidate + 1, string, 1, ignoreCase)) {
+                return candidate;
+            }
+            position = candidate + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first byte equals to one of two bytes inside a region of a buffer.
+     *
+     * @param buffer The buffer, it must be in little endian order.
+     * @param first  The first byte to find.
+     * @param second The second byte to find, it can be the same than the first.
+     * @param from   The region start.
+     * @param to     The region end.
+     * @return The position of the byte, -1 if it's not found.
+     */
+    static int indexOf(ByteBuffer buffer, byte first, byte second, int from, int to) {
+        long firstPattern = ONES * (first & 0xFF);
+        long secondPattern = ONES * (second & 0xFF);
+        int position = from;
+
+        while (position + 8 <= to) {
+            long word = buffer.getLong(position);
+            long found = zeroBytes(word ^ firstPattern);
+            if (first != second) {
+                found |= zeroBytes(word ^ secondPattern);
+            }
+
+            if (found != 0) {
+                return position + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+            position += 8;
+        }
+
+        while (position < to) {
+            byte b = buffer.get(position);
+            if ((b == first) || (b == second)) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Mark the zero bytes of a word. The lowest mark is always right, the upper ones can be wrong after a zero byte.
+     *
+     * @param word The word.
+     * @return The word with the high bit of the zero bytes set.
+     */
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGHS;
+    }
+
+    /**
+     * Compare the end of a byte string with a region of a buffer.
+     *
+     * @param buffer     The buffer.
+     * @param offset     The region start.
+     * @param string     The byte string.
+     * @param from       The first byte of the string compared.
+     * @param ignoreCase True to compare the ASCII letters ignoring the case.
+     * @return True if the bytes are equals, False if aren't.
+     */
+    private static boolean regionMatches(ByteBuffer buffer, int offset, byte[] string, int from, boolean ignoreCase) {
+        for (int i = from; i < string.length; i++) {
+            byte b = buffer.get(offset + i - from);
+
+            if ((b != string[i]) && ((!ignoreCase) || (b != switchCase(string[i])))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Switch the case of an ASCII letter.
+     *
+     * @param b The byte.
+     * @return The byte with the other case if it's an ASCII letter, the same byte if it isn't.
+     */
+    private static byte switchCase(byte b) {
+        if (((b >= 'a') && (b <= 'z')) || ((b >= 'A') && (b <= 'Z'))) {
+            return (byte) (b ^ 0x20);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,400 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextDeselectionException;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class can parser an encoded text without decoding it.
+ * <p>
+ * The delimiters are encoded once and searched directly in the bytes, and only the extracted text is decoded. It's
+ * only supported for the charsets where the bytes of a char can't be part of other char: UTF-8, US-ASCII and
+ * ISO-8859-1. The positions are counted in bytes, and the IGNORE_CASE option only ignores the case of the ASCII
+ * letters. The REGEX option is not supported, and the delimiters that can't be encoded in the charset are rejected.
+ */
+public class ByteSelector {
+    // The options of the contains methods
+    private static final int CONTAINS_OPTIONS = SelectorOptions.toMask(SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL);
+    private static final int CONTAINS_IGNORING_CASE_OPTIONS = SelectorOptions.toMask(SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE);
+    // The slots of the encoded delimiters cache, it must be a power of two
+    private static final int ENCODED_CACHE_SIZE = 16;
+
+    private final ByteBuffer bytes;
+    private final Charset charset;
+    private final SelectionStack selections;
+    private final CharsetEncoder encoder;
+    // The last delimiters encoded, indexed by their hash code
+    private final String[] encodedStrings = new String[ENCODED_CACHE_SIZE];
+    private final byte[][] encodedBytes = new byte[ENCODED_CACHE_SIZE][];
+
+    /**
+     * Constructor. The bytes are UTF-8 and they are not copied.
+     *
+     * @param bytes The bytes to parser.
+     */
+    public ByteSelector(byte[] bytes) {
+        this(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructor. The bytes are not copied.
+     *
+     * @param bytes   The bytes to parser.
+     * @param charset The bytes charset.
+     */
+    public ByteSelector(byte[] bytes, Charset charset) {
+        this(ByteBuffer.wrap(getBytes(bytes)), charset);
+    }
+
+    /**
+     * Constructor. The bytes between the buffer position and its limit are parsed, without copying them nor changing
+     * the buffer position.
+     *
+     * @param bytes   The bytes to parser.
+     * @param charset The bytes charset.
+     */
+    public ByteSelector(ByteBuffer bytes, Charset charset) {
+        CheckUtils.checkNull("bytes", bytes);
+        CheckUtils.checkNull("charset", charset);
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("The charset " + charset.name() + " is not supported");
+        }
+
+        this.bytes = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.charset = charset;
+        this.selections = new SelectionStack();
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+        clearSelection();
+    }
+
+    /**
+     * Check if a charset can be parsed without decoding it.
+     *
+     * @param charset The charset.
+     * @return True if it's supported, False if it isn't.
+     */
+    public static boolean isSupported(Charset charset) {
+        CheckUtils.checkNull("charset", charset);
+
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The charset of the bytes.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Select the text from the given start string to the selection end.
+     *
+     * @param startString The start string.
+     * @param option      The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the startString text doesn't exist in the selection.
+     * @throws IllegalArgumentException      if the startString text can't be encoded in the charset.
+     */
+    public boolean selectTextToEnd(String startString, SelectorOptions... option) {
+        CheckUtils.checkNull("startString", startString);
+
+        return setSelection(startString, null, toMask(option));
+    }
+
+    /**
+     * Select the text from the selection start to the given end string.
+     *
+     * @param endString The end string.
+     * @param option    The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the endString text doesn't exist in the selection.
+     * @throws IllegalArgumentException      if the endString text can't be encoded in the charset.
+     */
+    public boolean selectTextFromStart(String endString, SelectorOptions... option) {
+        CheckUtils.checkNull("endString", endString);
+
+        return setSelection(null, endString, toMask(option));
+    }
+
+    /**
+     * Select the text between the given text.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param option      The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the boundaries texts don't exist in the selection.
+     * @throws IllegalArgumentException      if the boundaries texts can't be encoded in the charset.
+     */
+    public boolean selectText(String startString, String endString, SelectorOptions... option) {
+        CheckUtils.checkNull("startString", startString);
+        CheckUtils.checkNull("endString", endString);
+
+        return setSelection(startString, endString, toMask(option));
+    }
+
+    /**
+     * Deselect the last selected text .
+     *
+     * @throws IllegalTextDeselectionException if there isn't any selected text
+     */
+    public void deselectText() {
+        if (selections.size() < 2) {
+            throw new IllegalTextDeselectionException("There isn't any selected text");
+        }
+        selections.pop();
+    }
+
+    /**
+     * Clear all selected text and select the whole text.
+     */
+    public void clearSelection() {
+        selections.clear(0, bytes.limit());
+    }
+
+    /**
+     * Check if our selection contains the text given.
+     *
+     * @param string The string to check
+     * @return True if the selection contains the string, false if doesn't.
+     */
+    public boolean containsText(String string) {
+        CheckUtils.checkNull("endString", string);
+
+        if (setSelection(null, string, CONTAINS_OPTIONS)) {
+            deselectText();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if our selection contains the text given. Ignoring the case of the ASCII letters.
+     *
+     * @param string The string to check
+     * @return True if the selection contains the string, false if doesn't.
+     */
+    public boolean containsTextIgnoringCase(String string) {
+        CheckUtils.checkNull("endString", string);
+
+        if (setSelection(null, string, CONTAINS_IGNORING_CASE_OPTIONS)) {
+            deselectText();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the text include in the last selection, decoding only its bytes.
+     *
+     * @return The extracted text.
+     */
+    public String extractText() {
+        int start = selections.getEffectiveStart();
+        int end = selections.getEffectiveEnd();
+
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + start, end - start, charset);
+        }
+
+        ByteBuffer region = bytes.duplicate();
+        region.limit(end).position(start);
+        return charset.decode(region).toString();
+    }
+
+    /**
+     * Return the positions of the last selection, without decoding it.
+     *
+     * @return The byte positions of the selected text.
+     */
+    public TextRange extractRange() {
+        return new TextRange(selections.getEffectiveStart(), selections.getEffectiveEnd());
+    }
+
+    /**
+     * Extract the text between the given text.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param option      The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the boundaries text don't exist in the selection.
+     */
+    public String extractText(String startString, String endString, SelectorOptions... option) {
+        if (selectText(startString, endString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Extract the text from the given start string to the selection end.
+     *
+     * @param startString The start string.
+     * @param option      The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the startString text doesn't exist in the selection.
+     */
+    public String extractTextToEnd(String startString, SelectorOptions... option) {
+        if (selectTextToEnd(startString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Extract the text from the selection start to the given end string.
+     *
+     * @param endString The end string.
+     * @param option    The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the endString text doesn't exist in the selection.
+     */
+    public String extractTextFromStart(String endString, SelectorOptions... option) {
+        if (selectTextFromStart(endString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Select the text between the given text. It's a utilitary method.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param options     The selection options bit mask.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     */
+    private boolean setSelection(String startString, String endString, int options) {
+        boolean optional = SelectorOptions.OPTIONAL.isInclude(options);
+        boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(options);
+        int lastEffectiveStart = selections.getEffectiveStart();
+        int lastEffectiveEnd = selections.getEffectiveEnd();
+
+        int start = lastEffectiveStart;
+        int effectiveStart = lastEffectiveStart;
+        if (startString != null) {
+            byte[] startBytes = encode(startString);
+            start = ByteSearch.indexOf(bytes, startBytes, lastEffectiveStart, lastEffectiveEnd, ignoreCase);
+            effectiveStart = start + startBytes.length;
+        }
+
+        if ((start < 0) && (optional)) {
+            return false;
+        } else if (start < 0) {
+            throwTextNotFound("Start", startString, options);
+        }
+
+        int effectiveEnd = lastEffectiveEnd;
+        int end = lastEffectiveEnd;
+        if (endString != null) {
+            byte[] endBytes = encode(endString);
+            effectiveEnd = ByteSearch.indexOf(bytes, endBytes, effectiveStart, lastEffectiveEnd, ignoreCase);
+            end = effectiveEnd + endBytes.length;
+        }
+
+        if ((effectiveEnd < 0) && (optional)) {
+            return false;
+        } else if (effectiveEnd < 0) {
+            throwTextNotFound("End", endString, options);
+        }
+
+        if (!SelectorOptions.NO_MOVE.isInclude(options)) {
+            selections.setEffectiveStart(end);
+        }
+
+        boolean includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(options);
+        selections.push(start, end, ((includeDelimiters) ? start : effectiveStart), ((includeDelimiters) ? end : effectiveEnd));
+        return true;
+    }
+
+    /**
+     * Encode a delimiter in the bytes charset. The delimiters are cached, so the ones used in a loop are encoded only
+     * once.
+     *
+     * @param string The delimiter.
+     * @return The encoded delimiter.
+     * @throws IllegalArgumentException if the delimiter can't be encoded in the charset.
+     */
+    private byte[] encode(String string) {
+        int slot = string.hashCode() & (ENCODED_CACHE_SIZE - 1);
+        if (string.equals(encodedStrings[slot])) {
+            return encodedBytes[slot];
+        }
+
+        byte[] encoded;
+        try {
+            ByteBuffer buffer = encoder.encode(CharBuffer.wrap(string));
+            encoded = new byte[buffer.remaining()];
+            buffer.get(encoded);
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("The text \"" + string + "\" can't be encoded in " + charset.name(), e);
+        }
+
+        encodedStrings[slot] = string;
+        encodedBytes[slot] = encoded;
+        return encoded;
+    }
+
+    /**
+     * Pack the selection options into a bit mask.
+     *
+     * @param options The selection options.
+     * @return The bit mask.
+     */
+    private static int toMask(SelectorOptions... options) {
+        CheckUtils.checkNull("options", options);
+
+        int mask = SelectorOptions.toMask(options);
+        if (SelectorOptions.REGEX.isInclude(mask)) {
+            throw new IllegalArgumentException("The REGEX option is not supported by the byte selector");
+        }
+        return mask;
+    }
+
+    /**
+     * Check the bytes given to a constructor.
+     *
+     * @param bytes The bytes.
+     * @return The same bytes.
+     */
+    private static byte[] getBytes(byte[] bytes) {
+        CheckUtils.checkNull("bytes", bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Throw a error message indicating the text value
+     *
+     * @param name    The delimiter name, Start or End.
+     * @param value   The value.
+     * @param options The selection options bit mask, the stack trace is not filled with NO_STACK_TRACE.
+     */
+    private void throwTextNotFound(String name, String value, int options) {
+        if (CheckUtils.isOptionalCheckEnabled()) {
+            CheckUtils.checkString("name", name);
+            CheckUtils.checkNull("value", value);
+        }
+
+        String message = name + " text: \"" + value + "\" not found.";
+        throw new IllegalTextSelectionException(message, !SelectorOptions.NO_STACK_TRACE.isInclude(options));
+    }
+}
@@ -0,0 +1,207 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+import java.util.Arrays;
+
+/**
+ * A growable text kept in chunks of a fixed size, for the texts built from many appended fragments.
+ * <p>
+ * Appending never copies the text already appended, only the chunk references when their array grows. The chunks
+ * before a position can be released to keep the memory flat in long lived streams; the positions are still counted
+ * from the text start, but the released chars can't be read anymore. This class is not thread safe.
+ */
+public final class ChunkedText implements CharSequence, Appendable {
+    // The default number of chars of each chunk
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final int chunkShift;
+    private final int chunkMask;
+    private char[][] chunks;
+    // The index of the first chunk kept in the array, and the number of chunks in use from it
+    private int firstChunk;
+    private int chunkCount;
+    private int released;
+    private int length;
+
+    /**
+     * Constructor.
+     */
+    public ChunkedText() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param chunkSize The number of chars of each chunk, it must be a power of two.
+     */
+    public ChunkedText(int chunkSize) {
+        CheckUtils.checkIntBigger("chunkSize", chunkSize, 1);
+        if (Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("The chunkSize must be a power of two, and is: " + chunkSize);
+        }
+
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        this.chunks = new char[8][];
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if ((index < released) || (index >= length)) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return chunks[(index >>> chunkShift) - firstChunk][index & chunkMask];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if ((start < released) || (end > length) || (start > end)) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+
+        char[] result = new char[end - start];
+        int position = start;
+
+        while (position < end) {
+            int offset = position & chunkMask;
+            int count = Math.min(end - position, chunkMask + 1 - offset);
+            System.arraycopy(chunks[(position >>> chunkShift) - firstChunk], offset, result, position - start, count);
+            position += count;
+        }
+        return new String(result);
+    }
+
+    @Override
+    public ChunkedText append(CharSequence text) {
+        CheckUtils.checkNull("text", text);
+
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public ChunkedText append(CharSequence text, int start, int end) {
+        CheckUtils.checkNull("text", text);
+        CheckUtils.checkInt("start", start, 0, text.length());
+        CheckUtils.checkInt("end", end, "start", start, "length", text.length());
+
+        int position = start;
+        while (position < end) {
+            char[] chunk = getLastChunk();
+            int offset = length & chunkMask;
+            int count = Math.min(end - position, chunk.length - offset);
+
+            if (text instanceof String) {
+                ((String) text).getChars(position, position + count, chunk, offset);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    chunk[offset + i] = text.charAt(position + i);
+                }
+            }
+            position += count;
+            length += count;
+        }
+        return this;
+    }
+
+    @Override
+    public ChunkedText append(char c) {
+        getLastChunk()[length & chunkMask] = c;
+        length++;
+        return this;
+    }
+
+    /**
+     * Release the chunks that are whole before a position.
+     *
+     * @param position The first position that must be kept.
+     */
+    public void release(int position) {
+        CheckUtils.checkInt("position", position, 0, length);
+
+        int chunk = position >>> chunkShift;
+        int releasedChunk = released >>> chunkShift;
+        if (chunk <= releasedChunk) {
+            return;
+        }
+
+        for (int i = releasedChunk; i < chunk; i++) {
+            chunks[i - firstChunk] = null;
+        }
+        released = chunk << chunkShift;
+    }
+
+    /**
+     * Return the first position that can be read.
+     *
+     * @return The first position not released.
+     */
+    public int getFirstRetained() {
+        return released;
+    }
+
+    /**
+     * Return the text that was not released.
+     *
+     * @return The text from the first retained position.
+     */
+    public String retainedText() {
+        return subSequence(released, length).toString();
+    }
+
+    /**
+     * Return the whole text, with the {@link #length()} chars.
+     *
+     * @return The text from the start.
+     * @throws IllegalStateException if some chars were released, {@link #retainedText()} returns the text kept.
+     */
+    @Override
+    public String toString() {
+        if (released > 0) {
+            throw new IllegalStateException("The chars before " + released
+                    + " were released, the whole text can't be returned");
+        }
+        return subSequence(0, length).toString();
+    }
+
+    /**
+     * Get the chunk where the next char is appended, adding a new one if the last is full.
+     *
+     * @return The chunk.
+     */
+    private char[] getLastChunk() {
+        int index = (length >>> chunkShift) - firstChunk;
+
+        if (index == chunkCount) {
+            if (index == chunks.length) {
+                growChunks();
+                index = (length >>> chunkShift) - firstChunk;
+            }
+            chunks[index] = new char[chunkMask + 1];
+            chunkCount = index + 1;
+        }
+        return chunks[index];
+    }
+
+    /**
+     * Make room for a new chunk reference, dropping the released ones before growing the array.
+     */
+    private void growChunks() {
+        int releasedChunks = (released >>> chunkShift) - firstChunk;
+
+        if (releasedChunks >= chunks.length / 2) {
+            System.arraycopy(chunks, releasedChunks, chunks, 0, chunkCount - releasedChunks);
+            Arrays.fill(chunks, chunkCount - releasedChunks, chunkCount, null);
+            firstChunk += releasedChunks;
+            chunkCount -= releasedChunks;
+        } else {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+    }
+}
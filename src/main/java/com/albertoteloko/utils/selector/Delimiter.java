@@ -0,0 +1,100 @@
+package com.albertoteloko.utils.selector;
+
+import java.util.Arrays;
+
+/**
+ * This class define a delimiter compiled to be searched many times with the Boyer-Moore-Horspool algorithm.
+ * <p>
+ * The skip table is indexed by the lower byte of each char, folded when the case is ignored, so colliding chars only
+ * make the shifts shorter. This class is immutable.
+ */
+final class Delimiter {
+    private static final int TABLE_SIZE = 256;
+
+    private final String string;
+    private final boolean ignoreCase;
+    private final int[] shifts;
+
+    /**
+     * Constructor.
+     *
+     * @param string     The delimiter string.
+     * @param ignoreCase True to compare the chars ignoring the case.
+     */
+    Delimiter(String string, boolean ignoreCase) {
+        this.string = string;
+        this.ignoreCase = ignoreCase;
+        this.shifts = new int[TABLE_SIZE];
+
+        int length = string.length();
+        Arrays.fill(shifts, Math.max(length, 1));
+
+        for (int i = 0; i < length - 1; i++) {
+            shifts[index(string.charAt(i))] = length - 1 - i;
+        }
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The delimiter string.
+     */
+    String getString() {
+        return string;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The delimiter length.
+     */
+    int length() {
+        return string.length();
+    }
+
+    /**
+     * Find the first occurrence of the delimiter inside a region of a char sequence.
+     *
+     * @param text The text where search.
+     * @param from The first position where the occurrence can start.
+     * @param to   The position where the occurrence must be ended.
+     * @return The position of the occurrence, -1 if there isn't any.
+     */
+    int indexOf(CharSequence text, int from, int to) {
+        int length = string.length();
+
+        if (from < 0) {
+            from = 0;
+        }
+        if (length == 0) {
+            return (from <= to) ? from : -1;
+        }
+
+        char lastChar = string.charAt(length - 1);
+        int last = to - length;
+
+        for (int i = from; i <= last; ) {
+            char c = text.charAt(i + length - 1);
+
+            if (((c == lastChar) || (ignoreCase && TextSearch.equalsIgnoreCase(c, lastChar)))
+                    && (TextSearch.regionMatches(text, i, string, 0, length - 1, ignoreCase))) {
+                return i;
+            }
+            i += shifts[index(c)];
+        }
+        return -1;
+    }
+
+    /**
+     * Get the skip table index of one char.
+     *
+     * @param c The char.
+     * @return The index.
+     */
+    private int index(char c) {
+        if (ignoreCase) {
+            c = Character.toLowerCase(Character.toUpperCase(c));
+        }
+        return c & (TABLE_SIZE - 1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+import java.io.IOException;
+
+/**
+ * This class define the fields extracted from a text, kept as a flat array of start and end positions.
+ * <p>
+ * The text of each field is only copied when it's requested.
+ */
+public class ExtractionResult {
+    private final CharSequence text;
+    private final int[] offsets;
+
+    /**
+     * Constructor.
+     *
+     * @param text    The text where the fields were extracted.
+     * @param offsets The start and end of each field, -1 if the field wasn't found.
+     */
+    ExtractionResult(CharSequence text, int[] offsets) {
+        this.text = text;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Return the number of fields.
+     *
+     * @return The number of fields.
+     */
+    public int size() {
+        return offsets.length / 2;
+    }
+
+    /**
+     * Check if one field was found.
+     *
+     * @param field The field index.
+     * @return True if the field was found, False if wasn't.
+     */
+    public boolean isFound(int field) {
+        return getStart(field) >= 0;
+    }
+
+    /**
+     * Return the start position of one field.
+     *
+     * @param field The field index.
+     * @return The start position, -1 if the field wasn't found.
+     */
+    public int getStart(int field) {
+        checkField(field);
+
+        return offsets[field * 2];
+    }
+
+    /**
+     * Return the end position of one field.
+     *
+     * @param field The field index.
+     * @return The end position, -1 if the field wasn't found.
+     */
+    public int getEnd(int field) {
+        checkField(field);
+
+        return offsets[field * 2 + 1];
+    }
+
+    /**
+     * Return the text of one field.
+     *
+     * @param field The field index.
+     * @return The field text, null if the field wasn't found.
+     */
+    public String getText(int field) {
+        return isFound(field) ? text.subSequence(getStart(field), getEnd(field)).toString() : null;
+    }
+
+    /**
+     * Return the text of one field as a view of the text, without copying it.
+     *
+     * @param field The field index.
+     * @return The field text view, null if the field wasn't found.
+     */
+    public TextView getView(int field) {
+        return isFound(field) ? new TextView(text, getStart(field), getEnd(field)) : null;
+    }
+
+    /**
+     * Return the positions of one field.
+     *
+     * @param field The field index.
+     * @return The field range, null if the field wasn't found.
+     */
+    public TextRange getRange(int field) {
+        return isFound(field) ? new TextRange(getStart(field), getEnd(field)) : null;
+    }
+
+    /**
+     * Write the text of one field, without copying it into an intermediate string.
+     *
+     * @param field  The field index.
+     * @param output The output where the text is appended.
+     * @return True if the field was found and written, False if it wasn't found.
+     * @throws IOException If the output fails.
+     */
+    public boolean appendText(int field, Appendable output) throws IOException {
+        CheckUtils.checkNull("output", output);
+
+        if (!isFound(field)) {
+            return false;
+        }
+        output.append(text, getStart(field), getEnd(field));
+        return true;
+    }
+
+    /**
+     * Return the text of all the fields.
+     *
+     * @return The fields text, null for the fields that weren't found.
+     */
+    public String[] toArray() {
+        String[] result = new String[size()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getText(i);
+        }
+        return result;
+    }
+
+    /**
+     * Check if one field index is valid.
+     *
+     * @param field The field index.
+     */
+    private void checkField(int field) {
+        CheckUtils.checkInt("field", field, 0, size() - 1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.albertoteloko.utils.selector;
+
+/**
+ * This class find one by one the repeated occurrences of a selection inside a region of a text.
+ * <p>
+ * Each occurrence is searched from the end of the previous one, like a {@link Selector} that selects, extracts and
+ * deselects the same text in a loop, but keeping only two positions instead of a selection stack.
+ */
+final class MatchScanner {
+    private final CharSequence text;
+    private final Delimiter start;
+    private final Delimiter end;
+    private final boolean includeDelimiters;
+    private final int to;
+    private int position;
+    private int found;
+    private boolean finished;
+    private int matchStart;
+    private int matchEnd;
+
+    /**
+     * Constructor.
+     *
+     * @param text              The text to parser.
+     * @param start             The start delimiter, null to start at the region start.
+     * @param end               The end delimiter, null to end at the region end.
+     * @param includeDelimiters True to include the delimiters in the matches.
+     * @param from              The region start.
+     * @param to                The region end.
+     */
+    MatchScanner(CharSequence text, Delimiter start, Delimiter end, boolean includeDelimiters, int from, int to) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+        this.includeDelimiters = includeDelimiters;
+        this.position = from;
+        this.to = to;
+    }
+
+    /**
+     * Find the next occurrence. A occurrence that doesn't move forward ends the search.
+     *
+     * @return True if it was found, False if there aren't more occurrences.
+     */
+    boolean find() {
+        if (finished) {
+            return false;
+        }
+
+        int startIndex = position;
+        if (start != null) {
+            startIndex = start.indexOf(text, position, to);
+
+            if (startIndex < 0) {
+                finished = true;
+                return false;
+            }
+        }
+
+        int effectiveStart = startIndex + ((start != null) ? start.length() : 0);
+
+        int effectiveEnd = to;
+        if (end != null) {
+            effectiveEnd = end.indexOf(text, effectiveStart, to);
+
+            if (effectiveEnd < 0) {
+                finished = true;
+                return false;
+            }
+        }
+
+        int endIndex = effectiveEnd + ((end != null) ? end.length() : 0);
+
+        if (endIndex <= position) {
+            finished = true;
+
+            if (found > 0) {
+                return false;
+            }
+        }
+
+        matchStart = (includeDelimiters) ? startIndex : effectiveStart;
+        matchEnd = (includeDelimiters) ? endIndex : effectiveEnd;
+        position = endIndex;
+        found++;
+        return true;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The start of the last occurrence found.
+     */
+    int getMatchStart() {
+        return matchStart;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The end of the last occurrence found.
+     */
+    int getMatchEnd() {
+        return matchEnd;
+    }
+}
@@ -0,0 +1,403 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class define a set of extractions that are found all together in one pass over the text.
+ * <p>
+ * Every extraction starts searching at the same position, like a {@link Selector} extraction with the NO_MOVE option,
+ * and supports the OPTIONAL, INCLUDE_DELIMITERS and IGNORE_CASE options. All the delimiters are compiled into
+ * Aho-Corasick automatons, so the cost of an execution doesn't grow with the number of fields. The scan stops as soon
+ * as every field is found.
+ * <p>
+ * This class is immutable and can be shared between threads.
+ */
+public final class MultiExtraction {
+    private static final int WAITING_START = 0;
+    private static final int WAITING_END = 1;
+    private static final int DONE = 2;
+
+    private final Field[] fields;
+    // The case sensitive and the case insensitive automatons, null if they have no strings
+    private final PatternAutomaton[] automatons;
+    // For each automaton and string id, the fields that use it as start or as end
+    private final int[][][] startFields;
+    private final int[][][] endFields;
+
+    /**
+     * Constructor.
+     *
+     * @param builder The builder with the fields.
+     */
+    private MultiExtraction(Builder builder) {
+        this.fields = builder.fields.toArray(new Field[builder.fields.size()]);
+        this.automatons = new PatternAutomaton[2];
+        this.startFields = new int[2][][];
+        this.endFields = new int[2][][];
+
+        for (int i = 0; i < 2; i++) {
+            List<String> strings = builder.strings.get(i);
+
+            if (!strings.isEmpty()) {
+                automatons[i] = new PatternAutomaton(strings, i == 1);
+            }
+            startFields[i] = new int[strings.size()][0];
+            endFields[i] = new int[strings.size()][0];
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            int automaton = (field.ignoreCase) ? 1 : 0;
+
+            if (field.start >= 0) {
+                startFields[automaton][field.start] = append(startFields[automaton][field.start], i);
+            }
+            if (field.end >= 0) {
+                endFields[automaton][field.end] = append(endFields[automaton][field.end], i);
+            }
+        }
+    }
+
+    /**
+     * Create a builder to define a new extraction.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Return the number of fields that are extracted.
+     *
+     * @return The number of fields.
+     */
+    public int getFields() {
+        return fields.length;
+    }
+
+    /**
+     * Extract all the fields from a text.
+     *
+     * @param text The text to parser.
+     * @return The extracted fields, in the same order that they were defined.
+     * @throws IllegalTextSelectionException if a not OPTIONAL field doesn't exist in the text.
+     */
+    public ExtractionResult execute(CharSequence text) {
+        CheckUtils.checkNull("text", text);
+
+        return execute(text, 0, text.length());
+    }
+
+    /**
+     * Extract all the fields from a region of a text.
+     *
+     * @param text The text to parser.
+     * @param from The position where the fields start to be searched.
+     * @param to   The position where the fields must be ended.
+     * @return The extracted fields, in the same order that they were defined.
+     * @throws IllegalTextSelectionException if a not OPTIONAL field doesn't exist in the text.
+     */
+    ExtractionResult execute(CharSequence text, int from, int to) {
+        Execution execution = new Execution(text, from, to);
+
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].start < 0) {
+                execution.startFound(i, from);
+            }
+        }
+
+        PatternAutomaton sensitive = automatons[0];
+        PatternAutomaton insensitive = automatons[1];
+        int sensitiveState = (sensitive != null) ? sensitive.getInitialState() : 0;
+        int insensitiveState = (insensitive != null) ? insensitive.getInitialState() : 0;
+
+        for (int i = from; (i < to) && (execution.pending > 0); i++) {
+            char c = text.charAt(i);
+
+            if (sensitive != null) {
+                sensitiveState = sensitive.next(sensitiveState, c);
+                execution.matched(0, sensitive.getMatches(sensitiveState), i);
+            }
+            if (insensitive != null) {
+                insensitiveState = insensitive.next(insensitiveState, c);
+                execution.matched(1, insensitive.getMatches(insensitiveState), i);
+            }
+        }
+
+        return execution.finish();
+    }
+
+    /**
+     * Add one index to an array.
+     *
+     * @param indexes The indexes.
+     * @param index   The new index.
+     * @return The new array.
+     */
+    private static int[] append(int[] indexes, int index) {
+        int[] result = Arrays.copyOf(indexes, indexes.length + 1);
+        result[indexes.length] = index;
+        return result;
+    }
+
+    /**
+     * This class build an extraction with the same methods than the {@link Selector}.
+     */
+    public static final class Builder {
+        private final List<Field> fields = new ArrayList<>();
+        private final List<List<String>> strings = Arrays.<List<String>>asList(new ArrayList<String>(), new ArrayList<String>());
+        private final List<Map<String, Integer>> ids = Arrays.<Map<String, Integer>>asList(new HashMap<String, Integer>(), new HashMap<String, Integer>());
+        private boolean built;
+
+        private Builder() {
+        }
+
+        /**
+         * Extract the text between the given text as a new field.
+         *
+         * @param startString The start string.
+         * @param endString   The end string.
+         * @param option      The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractText(String startString, String endString, SelectorOptions... option) {
+            CheckUtils.checkNull("startString", startString);
+            CheckUtils.checkNull("endString", endString);
+
+            return addField(startString, endString, option);
+        }
+
+        /**
+         * Extract the text from the given start string to the selection end as a new field.
+         *
+         * @param startString The start string.
+         * @param option      The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractTextToEnd(String startString, SelectorOptions... option) {
+            CheckUtils.checkNull("startString", startString);
+
+            return addField(startString, null, option);
+        }
+
+        /**
+         * Extract the text from the selection start to the given end string as a new field.
+         *
+         * @param endString The end string.
+         * @param option    The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractTextFromStart(String endString, SelectorOptions... option) {
+            CheckUtils.checkNull("endString", endString);
+
+            return addField(null, endString, option);
+        }
+
+        /**
+         * Build the extraction. The builder can't be used anymore.
+         *
+         * @return The compiled extraction.
+         */
+        public MultiExtraction build() {
+            checkNotBuilt();
+
+            built = true;
+            return new MultiExtraction(this);
+        }
+
+        /**
+         * Add a new field.
+         *
+         * @param startString The start string.
+         * @param endString   The end string.
+         * @param options     The extraction options.
+         * @return This to concatenate calls.
+         */
+        private Builder addField(String startString, String endString, SelectorOptions... options) {
+            CheckUtils.checkNull("options", options);
+            checkNotBuilt();
+            if (SelectorOptions.REGEX.isInclude(options)) {
+                throw new IllegalArgumentException("The REGEX option is not supported by the multiple extractions");
+            }
+
+            Field field = new Field();
+            field.ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(options);
+            field.optional = SelectorOptions.OPTIONAL.isInclude(options);
+            field.stackTrace = !SelectorOptions.NO_STACK_TRACE.isInclude(options);
+            field.includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(options);
+            field.startLength = (startString != null) ? startString.length() : 0;
+            field.endLength = (endString != null) ? endString.length() : -1;
+            field.start = getId(startString, field.ignoreCase);
+            field.end = getId(endString, field.ignoreCase);
+            field.startString = startString;
+            field.endString = endString;
+
+            fields.add(field);
+            return this;
+        }
+
+        /**
+         * Get the id of one string in its automaton.
+         *
+         * @param string     The string.
+         * @param ignoreCase True if the string is compared ignoring the case.
+         * @return The id, -1 if the string is null or empty.
+         */
+        private int getId(String string, boolean ignoreCase) {
+            if ((string == null) || (string.isEmpty())) {
+                return -1;
+            }
+
+            int automaton = (ignoreCase) ? 1 : 0;
+            Integer id = ids.get(automaton).get(string);
+
+            if (id == null) {
+                id = strings.get(automaton).size();
+                strings.get(automaton).add(string);
+                ids.get(automaton).put(string, id);
+            }
+            return id;
+        }
+
+        /**
+         * Check that the extraction is not built yet.
+         *
+         * @throws IllegalStateException if the extraction is already built.
+         */
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("The extraction is already built");
+            }
+        }
+    }
+
+    /**
+     * One field to extract, it's not modified once the extraction is built.
+     */
+    private static final class Field {
+        private String startString;
+        private String endString;
+        // The string ids, -1 if the delimiter is null or empty
+        private int start;
+        private int end;
+        private int startLength;
+        // -1 if the field ends at the selection end
+        private int endLength;
+        private boolean ignoreCase;
+        private boolean optional;
+        private boolean stackTrace;
+        private boolean includeDelimiters;
+    }
+
+    /**
+     * The state of one execution.
+     */
+    private final class Execution {
+        private final CharSequence text;
+        private final int to;
+        private final int[] offsets;
+        private final int[] states;
+        private final int[] starts;
+        private final int[] effectiveStarts;
+        private int pending;
+
+        private Execution(CharSequence text, int from, int to) {
+            this.text = text;
+            this.to = to;
+            this.offsets = new int[fields.length * 2];
+            this.states = new int[fields.length];
+            this.starts = new int[fields.length];
+            this.effectiveStarts = new int[fields.length];
+            this.pending = fields.length;
+
+            Arrays.fill(offsets, -1);
+        }
+
+        /**
+         * Process the strings that end in one position.
+         *
+         * @param automaton The automaton index.
+         * @param ids       The ids of the strings.
+         * @param position  The position of the last char of the strings.
+         */
+        private void matched(int automaton, int[] ids, int position) {
+            for (int id : ids) {
+                int start = position - automatons[automaton].getLength(id) + 1;
+
+                for (int field : startFields[automaton][id]) {
+                    if (states[field] == WAITING_START) {
+                        startFound(field, start);
+                    }
+                }
+                for (int field : endFields[automaton][id]) {
+                    if ((states[field] == WAITING_END) && (start >= effectiveStarts[field])) {
+                        endFound(field, start);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Process the start of one field.
+         *
+         * @param field The field index.
+         * @param start The start position.
+         */
+        private void startFound(int field, int start) {
+            Field definition = fields[field];
+
+            starts[field] = start;
+            effectiveStarts[field] = start + definition.startLength;
+            states[field] = WAITING_END;
+
+            if (definition.endLength < 0) {
+                endFound(field, to);
+            } else if (definition.end < 0) {
+                endFound(field, effectiveStarts[field]);
+            }
+        }
+
+        /**
+         * Process the end of one field.
+         *
+         * @param field        The field index.
+         * @param effectiveEnd The end position.
+         */
+        private void endFound(int field, int effectiveEnd) {
+            Field definition = fields[field];
+            boolean includeDelimiters = definition.includeDelimiters;
+
+            offsets[field * 2] = (includeDelimiters) ? starts[field] : effectiveStarts[field];
+            offsets[field * 2 + 1] = effectiveEnd + ((includeDelimiters) ? Math.max(definition.endLength, 0) : 0);
+            states[field] = DONE;
+            pending--;
+        }
+
+        /**
+         * Check the fields not found.
+         *
+         * @return The extracted fields.
+         * @throws IllegalTextSelectionException if a not OPTIONAL field was not found.
+         */
+        private ExtractionResult finish() {
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+
+                if ((states[i] == WAITING_START) && (!field.optional)) {
+                    throw new IllegalTextSelectionException("Start text: \"" + field.startString + "\" not found.", field.stackTrace);
+                } else if ((states[i] == WAITING_END) && (!field.optional)) {
+                    throw new IllegalTextSelectionException("End text: \"" + field.endString + "\" not found.", field.stackTrace);
+                }
+            }
+            return new ExtractionResult(text, offsets);
+        }
+    }
+}
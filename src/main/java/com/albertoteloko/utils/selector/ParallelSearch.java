@@ -0,0 +1,285 @@
+package com.albertoteloko.utils.selector;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class search delimiters in big texts splitting them in chunks that are scanned in a fork join pool.
+ * <p>
+ * Each chunk owns the occurrences that start inside it, and it reads up to the delimiter length after its end, so
+ * the occurrences that cross the chunk boundaries are found once. The results are always in document order.
+ */
+final class ParallelSearch {
+    // The min number of chars to search in parallel
+    static final int THRESHOLD = 1024 * 1024;
+    // The min number of chars of each chunk
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    private ParallelSearch() {
+    }
+
+    /**
+     * Find the first occurrence of a delimiter inside a region of a text.
+     *
+     * @param pool      The pool where the chunks are scanned.
+     * @param text      The text where search.
+     * @param delimiter The delimiter to find.
+     * @param from      The first position where the occurrence can start.
+     * @param to        The position where the occurrence must be ended.
+     * @return The position of the occurrence, -1 if there isn't any.
+     */
+    static int indexOf(ForkJoinPool pool, final CharSequence text, final Delimiter delimiter, int from, final int to) {
+        final AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+
+        pool.invoke(new ChunkAction(from, to - delimiter.length() + 1, getChunkSize(pool, to - from), new ChunkScanner() {
+            @Override
+            public void scan(int start, int end) {
+                if (first.get() < start) {
+                    return;
+                }
+
+                int index = delimiter.indexOf(text, start, Math.min(end - 1 + delimiter.length(), to));
+                int current = first.get();
+                while ((index >= 0) && (index < current) && (!first.compareAndSet(current, index))) {
+                    current = first.get();
+                }
+            }
+        }));
+
+        int result = first.get();
+        return (result == Integer.MAX_VALUE) ? -1 : result;
+    }
+
+    /**
+     * Find all the occurrences of a selection inside a region of a text, with the same semantics than a
+     * {@link MatchScanner}. The start and end delimiters must not be empty.
+     * <p>
+     * Each chunk pairs the starts and ends found inside it in parallel, keeping only the pairs, and the chunks are
+     * joined in order: a start left unclosed at the end of a chunk is closed searching its end in the next ones, and a
+     * chunk is scanned again from the real position only if the previous pair ends after its first start.
+     *
+     * @param pool              The pool where the chunks are scanned.
+     * @param text              The text where search.
+     * @param start             The start delimiter.
+     * @param end               The end delimiter.
+     * @param includeDelimiters True to include the delimiters in the matches.
+     * @param from              The region start.
+     * @param to                The region end.
+     * @return The start and end of each occurrence, in document order.
+     */
+    static int[] findAll(ForkJoinPool pool, final CharSequence text, final Delimiter start, final Delimiter end, boolean includeDelimiters,
+            final int from, final int to) {
+        final int last = to - start.length() + 1;
+        final int chunkSize = getChunkSize(pool, to - from);
+        final Chain[] chains = new Chain[getChunkCount(last - from, chunkSize)];
+
+        pool.invoke(new ChunkAction(from, last, chunkSize, new ChunkScanner() {
+            @Override
+            public void scan(int chunkStart, int chunkEnd) {
+                chains[(chunkStart - from) / chunkSize] = new Chain(text, start, end, chunkStart, chunkEnd, to);
+            }
+        }));
+
+        IntList result = new IntList();
+        int position = from;
+        for (int i = 0; (i < chains.length) && (position >= 0); i++) {
+            int chunkStart = from + i * chunkSize;
+            int chunkEnd = (i == chains.length - 1) ? last : chunkStart + chunkSize;
+            if (position >= chunkEnd) {
+                continue;
+            }
+
+            Chain chain = chains[i];
+            if ((position > chunkStart) && (chain.getFirstStart() >= 0) && (chain.getFirstStart() < position)) {
+                chain = new Chain(text, start, end, position, chunkEnd, to);
+            }
+            position = chain.join(result, text, start, end, includeDelimiters, position, to);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Get the size of the chunks for one region.
+     *
+     * @param pool   The pool where the chunks are scanned.
+     * @param length The region length.
+     * @return The chunk size.
+     */
+    private static int getChunkSize(ForkJoinPool pool, int length) {
+        return Math.max(MIN_CHUNK_SIZE, length / (pool.getParallelism() * 4));
+    }
+
+    /**
+     * Get the number of chunks of one region, without overflowing near the max int.
+     *
+     * @param length    The region length.
+     * @param chunkSize The chunk size.
+     * @return The number of chunks.
+     */
+    private static int getChunkCount(int length, int chunkSize) {
+        return (length > 0) ? (length - 1) / chunkSize + 1 : 0;
+    }
+
+    /**
+     * The scan of one chunk.
+     */
+    private interface ChunkScanner {
+
+        /**
+         * Scan the occurrences that start in one chunk.
+         *
+         * @param start The first position of the chunk.
+         * @param end   The end position of the chunk.
+         */
+        void scan(int start, int end);
+    }
+
+    /**
+     * A task that splits the candidate start positions in chunks, forking them until they have the chunk size.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int chunkSize;
+        private final ChunkScanner scanner;
+
+        private ChunkAction(int start, int end, int chunkSize, ChunkScanner scanner) {
+            this.start = start;
+            this.end = end;
+            this.chunkSize = chunkSize;
+            this.scanner = scanner;
+        }
+
+        @Override
+        protected void compute() {
+            int chunks = getChunkCount(end - start, chunkSize);
+
+            if (chunks <= 1) {
+                if (start < end) {
+                    scanner.scan(start, end);
+                }
+                return;
+            }
+
+            int middle = start + (chunks / 2) * chunkSize;
+            invokeAll(new ChunkAction(start, middle, chunkSize, scanner), new ChunkAction(middle, end, chunkSize, scanner));
+        }
+    }
+
+    /**
+     * The pairs of starts and ends found in one chunk from a position, as the sequential search would find them from
+     * there. Only the ends inside the chunk are searched, so the last start can be left unclosed.
+     */
+    private static final class Chain {
+        private final IntList pairs = new IntList();
+        private int unclosedStart = -1;
+
+        /**
+         * Constructor.
+         *
+         * @param text     The text where search.
+         * @param start    The start delimiter.
+         * @param end      The end delimiter.
+         * @param position The position where the search begins.
+         * @param chunkEnd The end of the chunk, the starts must begin before it.
+         * @param to       The region end.
+         */
+        private Chain(CharSequence text, Delimiter start, Delimiter end, int position, int chunkEnd, int to) {
+            int startLimit = (int) Math.min((long) chunkEnd - 1 + start.length(), to);
+            int endLimit = (int) Math.min((long) chunkEnd - 1 + end.length(), to);
+
+            while (true) {
+                int startIndex = start.indexOf(text, position, startLimit);
+                if (startIndex < 0) {
+                    break;
+                }
+
+                int endIndex = end.indexOf(text, startIndex + start.length(), endLimit);
+                if (endIndex < 0) {
+                    unclosedStart = startIndex;
+                    break;
+                }
+
+                pairs.add(startIndex);
+                pairs.add(endIndex);
+                position = endIndex + end.length();
+            }
+        }
+
+        /**
+         * Getter.
+         *
+         * @return The position of the first start found, -1 if there isn't any.
+         */
+        private int getFirstStart() {
+            return (pairs.size > 0) ? pairs.values[0] : unclosedStart;
+        }
+
+        /**
+         * Add the pairs of this chain to the result, closing the unclosed start if there is one.
+         *
+         * @param result            The result.
+         * @param text              The text where search.
+         * @param start             The start delimiter.
+         * @param end               The end delimiter.
+         * @param includeDelimiters True to include the delimiters in the matches.
+         * @param position          The position where the search was when the chunk was reached.
+         * @param to                The region end.
+         * @return The position where the search goes on, -1 if it's finished.
+         */
+        private int join(IntList result, CharSequence text, Delimiter start, Delimiter end, boolean includeDelimiters, int position, int to) {
+            for (int i = 0; i < pairs.size; i += 2) {
+                position = add(result, start, end, includeDelimiters, pairs.values[i], pairs.values[i + 1]);
+            }
+
+            if (unclosedStart >= 0) {
+                int endIndex = end.indexOf(text, unclosedStart + start.length(), to);
+                if (endIndex < 0) {
+                    return -1;
+                }
+                position = add(result, start, end, includeDelimiters, unclosedStart, endIndex);
+            }
+            return position;
+        }
+
+        /**
+         * Add one occurrence to the result.
+         *
+         * @param result            The result.
+         * @param start             The start delimiter.
+         * @param end               The end delimiter.
+         * @param includeDelimiters True to include the delimiters in the matches.
+         * @param startIndex        The position of the start delimiter.
+         * @param endIndex          The position of the end delimiter.
+         * @return The position after the end delimiter.
+         */
+        private static int add(IntList result, Delimiter start, Delimiter end, boolean includeDelimiters, int startIndex, int endIndex) {
+            result.add((includeDelimiters) ? startIndex : startIndex + start.length());
+            result.add((includeDelimiters) ? endIndex + end.length() : endIndex);
+            return endIndex + end.length();
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
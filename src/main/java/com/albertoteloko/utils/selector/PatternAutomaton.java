@@ -0,0 +1,229 @@
+package com.albertoteloko.utils.selector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class define an Aho-Corasick automaton that finds many strings in one pass over a text.
+ * <p>
+ * The automaton is compiled into a dense transition table over the chars used by the strings, so each char of the
+ * text costs one table lookup. The state is a plain int, so a scan can be stopped and resumed later. Empty strings
+ * are never matched. This class is immutable.
+ */
+final class PatternAutomaton {
+    private static final int[] NO_MATCHES = new int[0];
+    private static final int ASCII_SIZE = 128;
+
+    private final boolean ignoreCase;
+    private final int[] lengths;
+    // The non ASCII chars used by the strings, sorted, and the class of every ASCII char
+    private final char[] alphabet;
+    private final int[] asciiClasses;
+    private final int classes;
+    private final int[] transitions;
+    private final int[][] matches;
+
+    /**
+     * Constructor.
+     *
+     * @param strings    The strings to find.
+     * @param ignoreCase True to compare the chars ignoring the case.
+     */
+    PatternAutomaton(List<String> strings, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.lengths = new int[strings.size()];
+
+        TreeSet<Character> chars = new TreeSet<>();
+        for (String string : strings) {
+            for (int i = 0; i < string.length(); i++) {
+                chars.add(fold(string.charAt(i)));
+            }
+        }
+
+        this.asciiClasses = new int[ASCII_SIZE];
+        StringBuilder nonAscii = new StringBuilder();
+        int count = 0;
+        for (char c : chars) {
+            count++;
+            if (c < ASCII_SIZE) {
+                asciiClasses[c] = count;
+            } else {
+                nonAscii.append(c);
+            }
+        }
+        this.alphabet = nonAscii.toString().toCharArray();
+        this.classes = count + 1;
+
+        // The trie
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<int[]> outputs = new ArrayList<>();
+        children.add(new HashMap<Integer, Integer>());
+        outputs.add(NO_MATCHES);
+
+        for (int id = 0; id < strings.size(); id++) {
+            String string = strings.get(id);
+            lengths[id] = string.length();
+
+            if (string.isEmpty()) {
+                continue;
+            }
+
+            int state = 0;
+            for (int i = 0; i < string.length(); i++) {
+                int charClass = getClass(fold(string.charAt(i)));
+                Integer next = children.get(state).get(charClass);
+
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(charClass, next);
+                    children.add(new HashMap<Integer, Integer>());
+                    outputs.add(NO_MATCHES);
+                }
+                state = next;
+            }
+            outputs.set(state, append(outputs.get(state), id));
+        }
+
+        // The transitions, following the failure links in breadth first order
+        int states = children.size();
+        this.transitions = new int[states * classes];
+        this.matches = new int[states][];
+        int[] failures = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        matches[0] = outputs.get(0);
+        for (Map.Entry<Integer, Integer> child : children.get(0).entrySet()) {
+            transitions[child.getKey()] = child.getValue();
+            failures[child.getValue()] = 0;
+            queue.add(child.getValue());
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int failure = failures[state];
+            matches[state] = merge(outputs.get(state), matches[failure]);
+
+            for (int charClass = 0; charClass < classes; charClass++) {
+                Integer child = children.get(state).get(charClass);
+
+                if (child != null) {
+                    failures[child] = transitions[failure * classes + charClass];
+                    transitions[state * classes + charClass] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * classes + charClass] = transitions[failure * classes + charClass];
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the state before reading any char.
+     *
+     * @return The initial state.
+     */
+    int getInitialState() {
+        return 0;
+    }
+
+    /**
+     * Move the automaton with the next char of the text.
+     *
+     * @param state The current state.
+     * @param c     The next char.
+     * @return The new state.
+     */
+    int next(int state, char c) {
+        return transitions[state * classes + getClass(fold(c))];
+    }
+
+    /**
+     * Return the strings that end in one state.
+     *
+     * @param state The state.
+     * @return The ids of the strings, in the order they were given. The array must not be modified.
+     */
+    int[] getMatches(int state) {
+        return matches[state];
+    }
+
+    /**
+     * Return the length of one string.
+     *
+     * @param id The string id.
+     * @return The string length.
+     */
+    int getLength(int id) {
+        return lengths[id];
+    }
+
+    /**
+     * Fold the case of a char, if the case is ignored. Two chars are equals ignoring the case only if both are folded
+     * into the same char.
+     *
+     * @param c The char.
+     * @return The folded char.
+     */
+    private char fold(char c) {
+        return (ignoreCase) ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    /**
+     * Get the class of one folded char.
+     *
+     * @param c The folded char.
+     * @return The class, 0 if the char isn't used by any string.
+     */
+    private int getClass(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiClasses[c];
+        }
+
+        int index = Arrays.binarySearch(alphabet, c);
+        if (index < 0) {
+            return 0;
+        }
+
+        int asciiCount = classes - 1 - alphabet.length;
+        return asciiCount + index + 1;
+    }
+
+    /**
+     * Add one id to an array.
+     *
+     * @param ids The ids.
+     * @param id  The new id.
+     * @return The new array.
+     */
+    private static int[] append(int[] ids, int id) {
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays of ids.
+     *
+     * @param first  The first ids.
+     * @param second The second ids.
+     * @return The sorted ids of both arrays.
+     */
+    private static int[] merge(int[] first, int[] second) {
+        if (first.length == 0) {
+            return second;
+        }
+        if (second.length == 0) {
+            return first;
+        }
+
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        Arrays.sort(result);
+        return result;
+    }
+}
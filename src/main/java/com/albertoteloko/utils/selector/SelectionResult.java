@@ -0,0 +1,125 @@
+package com.albertoteloko.utils.selector;
+
+/**
+ * This class define the result of a selection that doesn't throw an exception when the text is not found. This class
+ * is immutable.
+ * <p>
+ * A found selection has the positions of the selected text and of the text including its delimiters, a missed
+ * selection has all the positions at -1. The missed results are shared constants, so a miss never allocates.
+ */
+public final class SelectionResult {
+    private static final SelectionResult START_NOT_FOUND = new SelectionResult(Status.START_NOT_FOUND, -1, -1, -1, -1);
+    private static final SelectionResult END_NOT_FOUND = new SelectionResult(Status.END_NOT_FOUND, -1, -1, -1, -1);
+
+    private final Status status;
+    private final int start;
+    private final int end;
+    private final int effectiveStart;
+    private final int effectiveEnd;
+
+    /**
+     * Constructor.
+     *
+     * @param status         The selection status.
+     * @param start          The start position, including the start delimiter.
+     * @param end            The end position, including the end delimiter.
+     * @param effectiveStart The start position of the selected text.
+     * @param effectiveEnd   The end position of the selected text.
+     */
+    private SelectionResult(Status status, int start, int end, int effectiveStart, int effectiveEnd) {
+        this.status = status;
+        this.start = start;
+        this.end = end;
+        this.effectiveStart = effectiveStart;
+        this.effectiveEnd = effectiveEnd;
+    }
+
+    /**
+     * Return the result of a found selection.
+     *
+     * @param start          The start position, including the start delimiter.
+     * @param end            The end position, including the end delimiter.
+     * @param effectiveStart The start position of the selected text.
+     * @param effectiveEnd   The end position of the selected text.
+     * @return The result.
+     */
+    static SelectionResult selected(int start, int end, int effectiveStart, int effectiveEnd) {
+        return new SelectionResult(Status.SELECTED, start, end, effectiveStart, effectiveEnd);
+    }
+
+    /**
+     * Return the result of a missed selection.
+     *
+     * @param status The status of the miss.
+     * @return The shared result.
+     */
+    static SelectionResult missed(Status status) {
+        return (status == Status.START_NOT_FOUND) ? START_NOT_FOUND : END_NOT_FOUND;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The selection status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Check if the text was selected.
+     *
+     * @return True if the text was selected, False if wasn't.
+     */
+    public boolean isSelected() {
+        return status == Status.SELECTED;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The start position including the start delimiter, -1 if the text wasn't selected.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The end position including the end delimiter, -1 if the text wasn't selected.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The start position of the selected text, -1 if the text wasn't selected.
+     */
+    public int getEffectiveStart() {
+        return effectiveStart;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The end position of the selected text, -1 if the text wasn't selected.
+     */
+    public int getEffectiveEnd() {
+        return effectiveEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "SelectionResult [status=" + status + ", start=" + start + ", end=" + end + ", effectiveStart=" + effectiveStart + ", effectiveEnd=" + effectiveEnd + "]";
+    }
+
+    /**
+     * The status of a selection.
+     */
+    public enum Status {
+        SELECTED, START_NOT_FOUND, END_NOT_FOUND
+    }
+}
@@ -0,0 +1,168 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+import java.util.Arrays;
+
+/**
+ * This class define the stack of selection ranges of a selector, kept in a growable int array so pushing and popping
+ * a selection never allocates.
+ * <p>
+ * The first selection is the main one and it's never popped.
+ */
+final class SelectionStack {
+    // The values of each selection: start, end, effectiveStart and effectiveEnd
+    private static final int VALUES = 4;
+
+    private int[] values = new int[VALUES * 8];
+    private int size;
+
+    /**
+     * Remove all the selections and add the main one.
+     *
+     * @param start The main selection start.
+     * @param end   The main selection end.
+     */
+    void clear(int start, int end) {
+        size = 0;
+        push(start, end, start, end);
+    }
+
+    /**
+     * Add a new selection.
+     *
+     * @param start          The start position.
+     * @param end            The end position.
+     * @param effectiveStart The effectiveStart position.
+     * @param effectiveEnd   The effectiveEnd position.
+     */
+    void push(int start, int end, int effectiveStart, int effectiveEnd) {
+        if (CheckUtils.isOptionalCheckEnabled()) {
+            CheckUtils.checkIntBigger("start", start, 0);
+            CheckUtils.checkIntBigger("end", end, "start", start);
+            CheckUtils.checkInt("effectiveStart", effectiveStart, "start", start, "end", end);
+            CheckUtils.checkInt("effectiveEnd", effectiveEnd, "effectiveStart", effectiveStart, "end", end);
+        }
+
+        if (values.length < (size + 1) * VALUES) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+
+        int index = size * VALUES;
+        values[index] = start;
+        values[index + 1] = end;
+        values[index + 2] = effectiveStart;
+        values[index + 3] = effectiveEnd;
+        size++;
+    }
+
+    /**
+     * Remove the last selection.
+     */
+    void pop() {
+        if (CheckUtils.isOptionalCheckEnabled()) {
+            CheckUtils.checkIntBigger("size", size, 2);
+        }
+
+        size--;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The number of selections, including the main one.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The start position of the last selection.
+     */
+    int getStart() {
+        return values[(size - 1) * VALUES];
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The end position of the last selection.
+     */
+    int getEnd() {
+        return values[(size - 1) * VALUES + 1];
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The effectiveStart position of the last selection.
+     */
+    int getEffectiveStart() {
+        return values[(size - 1) * VALUES + 2];
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The effectiveEnd position of the last selection.
+     */
+    int getEffectiveEnd() {
+        return values[(size - 1) * VALUES + 3];
+    }
+
+    /**
+     * Return the first position that any selection can read.
+     *
+     * @return The smallest effectiveStart position of all the selections.
+     */
+    int getMinEffectiveStart() {
+        int min = values[2];
+        for (int i = 1; i < size; i++) {
+            min = Math.min(min, values[i * VALUES + 2]);
+        }
+        return min;
+    }
+
+    /**
+     * Setter.
+     *
+     * @param effectiveStart The effectiveStart position of the last selection.
+     */
+    void setEffectiveStart(int effectiveStart) {
+        if (CheckUtils.isOptionalCheckEnabled()) {
+            CheckUtils.checkInt("effectiveStart", effectiveStart, "start", getStart(), "effectiveEnd", getEffectiveEnd());
+        }
+
+        values[(size - 1) * VALUES + 2] = effectiveStart;
+    }
+
+    /**
+     * Setter.
+     *
+     * @param end The end and effectiveEnd position of the main selection.
+     */
+    void setMainEnd(int end) {
+        if (CheckUtils.isOptionalCheckEnabled()) {
+            CheckUtils.checkIntBigger("end", end, "effectiveStart", values[2]);
+        }
+
+        values[1] = end;
+        values[3] = end;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SelectionStack [");
+        for (int i = 0; i < size; i++) {
+            int index = i * VALUES;
+            builder.append((i > 0) ? ", " : "");
+            builder.append("[start=").append(values[index]);
+            builder.append(", end=").append(values[index + 1]);
+            builder.append(", effectiveStart=").append(values[index + 2]);
+            builder.append(", effectiveEnd=").append(values[index + 3]).append("]");
+        }
+        return builder.append("]").toString();
+    }
+}
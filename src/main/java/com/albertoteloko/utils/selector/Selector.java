@@ -1,21 +1,46 @@
 package com.albertoteloko.utils.selector;
 
 import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.PatternCache;
+import com.albertoteloko.utils.io.MappedCharSequence;
 import com.albertoteloko.utils.selector.exceptions.IllegalTextDeselectionException;
 import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class can parser a String.
  * 
  */
 public class Selector {
-	private final StringBuilder text;
-	private final ArrayList<SelectionRange> selections;
+	// The options of the contains methods
+	private static final int CONTAINS_OPTIONS = SelectorOptions.toMask(SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL);
+	private static final int CONTAINS_IGNORING_CASE_OPTIONS = SelectorOptions.toMask(SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE);
+	// The compiled regular expressions of the REGEX option, shared by all the selectors
+	private static final PatternCache PATTERNS = new PatternCache(256);
+	// The min number of chars of a region to search it with the substring index
+	private static final int INDEX_THRESHOLD = 4096;
+
+	private final CharSequence text;
+	private final boolean appendable;
+	private final SelectionStack selections;
+	private final SubstringIndex index;
+	// The end of the last occurrence found by find
+	private int matchEnd;
 
 	private static StringBuilder loadFromFile(File file) throws FileNotFoundException {
 		Scanner scan = new Scanner(file);
@@ -41,6 +66,17 @@ public class Selector {
 		this(loadFromFile(file));
 	}
 
+	/**
+	 * Constructor. The file is memory mapped instead of loaded, so the text can't be appended.
+	 * 
+	 * @param file The file to parser.
+	 * @param charset The file charset, one of the supported by {@link MappedCharSequence}.
+	 * @throws IOException If the file can't be mapped.
+	 */
+	public Selector(File file, Charset charset) throws IOException {
+		this(new MappedCharSequence(file, charset));
+	}
+
 	/**
 	 * Constructor.
 	 * 
@@ -58,7 +94,9 @@ public class Selector {
 		CheckUtils.checkString("text", text);
 		
 		this.text = new StringBuilder(text);
-		selections = new ArrayList<SelectionRange>();
+		this.appendable = true;
+		this.index = null;
+		selections = new SelectionStack();
 		clearSelection();
 	}
 	
@@ -68,27 +106,100 @@ public class Selector {
 	 * @param text The text to parser.
 	 */
 	public Selector(StringBuilder text) {
+		this(text, true);
+	}
+
+	/**
+	 * Constructor. The text can be appended without copying it, and each append releases the chunks that no selection
+	 * can read anymore, so the memory stays flat while the selections move forward.
+	 * 
+	 * @param text The text to parser.
+	 */
+	public Selector(ChunkedText text) {
+		this(text, true);
+	}
+
+	/**
+	 * Constructor. The text is not copied, so the text can't be appended.
+	 * 
+	 * @param text The text to parser.
+	 */
+	public Selector(CharSequence text) {
+		this(text, false);
+	}
+
+	/**
+	 * Constructor. The selector works over the shared document text with its own selections, so each thread can use
+	 * its own selector over the same document. The text can't be appended. If the document is indexed, the index is
+	 * used to find the long enough strings in the big selections.
+	 * 
+	 * @param document The document to parser.
+	 */
+	public Selector(SelectorDocument document) {
+		this(getText(document), false, document.getIndex());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param text The text to parser.
+	 * @param appendable True if the text is a StringBuilder or a ChunkedText owned by this selector.
+	 */
+	private Selector(CharSequence text, boolean appendable) {
+		this(text, appendable, null);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param text The text to parser.
+	 * @param appendable True if the text is a StringBuilder or a ChunkedText owned by this selector.
+	 * @param index The substring index of the text, null if there isn't any.
+	 */
+	private Selector(CharSequence text, boolean appendable, SubstringIndex index) {
 		CheckUtils.checkNull("text", text);
 
 		this.text = text;
-		selections = new ArrayList<SelectionRange>();
+		this.appendable = appendable;
+		this.index = index;
+		selections = new SelectionStack();
 		clearSelection();
 	}
 
+	/**
+	 * Get the text of a document.
+	 * 
+	 * @param document The document.
+	 * @return The document text.
+	 */
+	private static CharSequence getText(SelectorDocument document) {
+		CheckUtils.checkNull("document", document);
+
+		return document.getText();
+	}
+
 	/**
 	 * Append a string to the main text selection.
 	 * 
 	 * @param string The string to add.
 	 * @return This to concatenate calls.
+	 * @throws UnsupportedOperationException if the selector wasn't created with a String, a StringBuilder or a ChunkedText.
 	 */
 	public Selector append(String string) {
-		text.append(string);
+		if (!appendable) {
+			throw new UnsupportedOperationException("The text of this selector can't be appended");
+		}
+		if (text instanceof ChunkedText) {
+			ChunkedText chunkedText = (ChunkedText) text;
+			chunkedText.release(selections.getMinEffectiveStart());
+			chunkedText.append(string);
+		} else {
+			((StringBuilder) text).append(string);
+		}
 
 		int end = text.length();
 
-		SelectionRange main = selections.get(0);
-		main.setEnd(end);
-		main.setEffectiveEnd(end);
+		selections.setMainEnd(end);
 
 		return this;
 	}
@@ -97,6 +208,8 @@ public class Selector {
 	 * Return the main string.
 	 * 
 	 * @return The main string
+	 * @throws IllegalStateException if the selector was created with a ChunkedText and the appends released some chars,
+	 *             because the positions of the selections are counted from the released start.
 	 */
 	public String getMainString() {
 		return text.toString();
@@ -112,7 +225,7 @@ public class Selector {
 	public boolean selectTextToEnd(String startString) {
 		CheckUtils.checkNull("startString", startString);
 
-		return setSelection(startString, null, SelectorOptions.NO_OPTIONS);
+		return setSelection(startString, null, 0);
 	}
 
 	/**
@@ -126,7 +239,7 @@ public class Selector {
 	public boolean selectTextToEnd(String startString, SelectorOptions... option) {
 		CheckUtils.checkNull("startString", startString);
 
-		return setSelection(startString, null, option);
+		return setSelection(startString, null, toMask(option));
 	}
 
 	/**
@@ -139,7 +252,7 @@ public class Selector {
 	public boolean selectTextFromStart(String endString) {
 		CheckUtils.checkNull("endString", endString);
 
-		return setSelection(null, endString, SelectorOptions.NO_OPTIONS);
+		return setSelection(null, endString, 0);
 	}
 
 	/**
@@ -153,7 +266,7 @@ public class Selector {
 	public boolean selectTextFromStart(String endString, SelectorOptions... option) {
 		CheckUtils.checkNull("endString", endString);
 
-		return setSelection(null, endString, option);
+		return setSelection(null, endString, toMask(option));
 	}
 
 	/**
@@ -168,7 +281,7 @@ public class Selector {
 		CheckUtils.checkNull("startString", startString);
 		CheckUtils.checkNull("endString", endString);
 
-		return setSelection(startString, endString, SelectorOptions.NO_OPTIONS);
+		return setSelection(startString, endString, 0);
 	}
 
 	/**
@@ -184,7 +297,51 @@ public class Selector {
 		CheckUtils.checkNull("startString", startString);
 		CheckUtils.checkNull("endString", endString);
 
-		return setSelection(startString, endString, option);
+		return setSelection(startString, endString, toMask(option));
+	}
+
+	/**
+	 * Select the text from the given start string to the selection end, without throwing an exception if it's not
+	 * found. The OPTIONAL option is not needed.
+	 * 
+	 * @param startString The start string.
+	 * @param option The selection option.
+	 * @return The result of the selection, the selection is only added if it's found.
+	 */
+	public SelectionResult trySelectTextToEnd(String startString, SelectorOptions... option) {
+		CheckUtils.checkNull("startString", startString);
+
+		return trySelection(startString, null, toMask(option));
+	}
+
+	/**
+	 * Select the text from the selection start to the given end string, without throwing an exception if it's not
+	 * found. The OPTIONAL option is not needed.
+	 * 
+	 * @param endString The end string.
+	 * @param option The selection option.
+	 * @return The result of the selection, the selection is only added if it's found.
+	 */
+	public SelectionResult trySelectTextFromStart(String endString, SelectorOptions... option) {
+		CheckUtils.checkNull("endString", endString);
+
+		return trySelection(null, endString, toMask(option));
+	}
+
+	/**
+	 * Select the text between the given text, without throwing an exception if it's not found. The OPTIONAL option
+	 * is not needed.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param option The selection option.
+	 * @return The result of the selection, the selection is only added if it's found.
+	 */
+	public SelectionResult trySelectText(String startString, String endString, SelectorOptions... option) {
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+
+		return trySelection(startString, endString, toMask(option));
 	}
 
 	/**
@@ -196,15 +353,15 @@ public class Selector {
 		if (selections.size() < 2) {
 			throw new IllegalTextDeselectionException("There isn't any selected text");
 		}
-		selections.remove(selections.size() - 1);
+		selections.pop();
 	}
 
 	/**
-	 * Clear all selected text and select the whole text.
+	 * Clear all selected text and select the whole text, or the text not released if it is a ChunkedText.
 	 */
 	public void clearSelection() {
-		selections.clear();
-		selections.add(new SelectionRange(0, text.length(), 0, text.length()));
+		int start = (text instanceof ChunkedText) ? ((ChunkedText) text).getFirstRetained() : 0;
+		selections.clear(start, text.length());
 	}
 
 	/**
@@ -214,7 +371,9 @@ public class Selector {
 	 * @return True if the selection contains the string, false if doesn't.
 	 */
 	public boolean containsTextIgnoringCase(String string) {
-		if (selectTextFromStart(string, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE)) {
+		CheckUtils.checkNull("endString", string);
+
+		if (setSelection(null, string, CONTAINS_IGNORING_CASE_OPTIONS)) {
 			deselectText();
 			return true;
 		}
@@ -229,7 +388,10 @@ public class Selector {
 	 * @return True if the selection contains the string, false if doesn't.
 	 */
 	public boolean containsTextIgnoringCase(String startString, String endString) {
-		if (selectText(startString, endString, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE)) {
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+
+		if (setSelection(startString, endString, CONTAINS_IGNORING_CASE_OPTIONS)) {
 			deselectText();
 			return true;
 		}
@@ -243,7 +405,9 @@ public class Selector {
 	 * @return True if the selection contains the string, false if doesn't.
 	 */
 	public boolean containsText(String string) {
-		if (selectTextFromStart(string, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL)) {
+		CheckUtils.checkNull("endString", string);
+
+		if (setSelection(null, string, CONTAINS_OPTIONS)) {
 			deselectText();
 			return true;
 		}
@@ -258,24 +422,85 @@ public class Selector {
 	 * @return True if the selection contains the string, false if doesn't.
 	 */
 	public boolean containsText(String startString, String endString) {
-		if (selectText(startString, endString, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL)) {
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+
+		if (setSelection(startString, endString, CONTAINS_OPTIONS)) {
 			deselectText();
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Check if our selection contains the text given, scanning big selections in parallel in the common pool.
+	 * 
+	 * @param string The string to check
+	 * @return True if the selection contains the string, false if doesn't.
+	 */
+	public boolean containsTextParallel(String string) {
+		return containsTextParallel(ForkJoinPool.commonPool(), string);
+	}
+
+	/**
+	 * Check if our selection contains the text given, scanning big selections in parallel. The selections smaller
+	 * than one million chars are scanned like {@link #containsText(String)}.
+	 * 
+	 * @param pool The pool where the selection is scanned.
+	 * @param string The string to check
+	 * @return True if the selection contains the string, false if doesn't.
+	 */
+	public boolean containsTextParallel(ForkJoinPool pool, String string) {
+		CheckUtils.checkNull("pool", pool);
+		CheckUtils.checkNull("string", string);
+
+		if (selections.getEffectiveEnd() - selections.getEffectiveStart() < ParallelSearch.THRESHOLD) {
+			return containsText(string);
+		}
+		return ParallelSearch.indexOf(pool, text, new Delimiter(string, false), selections.getEffectiveStart(), selections.getEffectiveEnd()) >= 0;
+	}
+
 	/**
 	 * Return the text include in the last selection.
 	 * 
 	 * @return The extracted text.
 	 */
 	public String extractText() {
-		SelectionRange range = getLastSelection();
-		String result = new String(text.substring(range.getEffectiveStart(), range.getEffectiveEnd()));
+		String result = text.subSequence(selections.getEffectiveStart(), selections.getEffectiveEnd()).toString();
 		return result;
 	}
 
+	/**
+	 * Return the text include in the last selection as a view of the main text, without copying it. The view is
+	 * valid while the selector text is not modified.
+	 * 
+	 * @return The extracted text view.
+	 */
+	public TextView extractTextView() {
+		return new TextView(text, selections.getEffectiveStart(), selections.getEffectiveEnd());
+	}
+
+	/**
+	 * Return the positions of the text include in the last selection.
+	 * 
+	 * @return The extracted text range.
+	 */
+	public TextRange extractRange() {
+		return new TextRange(selections.getEffectiveStart(), selections.getEffectiveEnd());
+	}
+
+	/**
+	 * Write the text include in the last selection, without copying it into an intermediate string.
+	 * 
+	 * @param output The output where the text is appended.
+	 * @throws IOException If the output fails.
+	 */
+	public void extractText(Appendable output) throws IOException {
+		CheckUtils.checkNull("output", output);
+
+		output.append(text, selections.getEffectiveStart(), selections.getEffectiveEnd());
+	}
+
 	/**
 	 * Extract the text from the selection start to the given end string. Without SelectorOptions.
 	 * 
@@ -371,94 +596,321 @@ public class Selector {
 		return null;
 	}
 
+	/**
+	 * Extract lazily every occurrence of the text between the given text inside the last selection. Each occurrence
+	 * is searched from the end of the previous one and the selection doesn't move. The OPTIONAL and NO_MOVE options
+	 * are ignored.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param option The extraction option.
+	 * @return The ordered stream of the extracted texts.
+	 */
+	public Stream<String> extractAll(String startString, String endString, SelectorOptions... option) {
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+
+		return StreamSupport.stream(new MatchSpliterator<String>(createScanner(startString, endString, option)) {
+			@Override
+			protected String create(int start, int end) {
+				return text.subSequence(start, end).toString();
+			}
+		}, false);
+	}
+
+	/**
+	 * Extract lazily every occurrence of the text between the given text inside the last selection, as views of the
+	 * main text. Each occurrence is searched from the end of the previous one and the selection doesn't move. The
+	 * OPTIONAL and NO_MOVE options are ignored.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param option The extraction option.
+	 * @return The ordered stream of the extracted text views.
+	 */
+	public Stream<TextView> extractAllViews(String startString, String endString, SelectorOptions... option) {
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+
+		return StreamSupport.stream(new MatchSpliterator<TextView>(createScanner(startString, endString, option)) {
+			@Override
+			protected TextView create(int start, int end) {
+				return new TextView(text, start, end);
+			}
+		}, false);
+	}
+
+	/**
+	 * Extract every occurrence of the text between the given text inside the last selection, scanning big selections
+	 * in parallel in the common pool.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param option The extraction option.
+	 * @return The extracted texts, in document order.
+	 */
+	public List<String> extractAllParallel(String startString, String endString, SelectorOptions... option) {
+		return extractAllParallel(ForkJoinPool.commonPool(), startString, endString, option);
+	}
+
+	/**
+	 * Extract every occurrence of the text between the given text inside the last selection, with the same semantics
+	 * than {@link #extractAll(String, String, SelectorOptions...)}. The selections bigger than one million chars are
+	 * scanned in parallel, finding first all the delimiters and then pairing them in document order.
+	 * 
+	 * @param pool The pool where the selection is scanned.
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param option The extraction option.
+	 * @return The extracted texts, in document order.
+	 */
+	public List<String> extractAllParallel(ForkJoinPool pool, String startString, String endString, SelectorOptions... option) {
+		CheckUtils.checkNull("pool", pool);
+		CheckUtils.checkNull("startString", startString);
+		CheckUtils.checkNull("endString", endString);
+		CheckUtils.checkNull("option", option);
+
+		List<String> result = new ArrayList<String>();
+
+		if ((selections.getEffectiveEnd() - selections.getEffectiveStart() < ParallelSearch.THRESHOLD) || (startString.isEmpty()) || (endString.isEmpty())) {
+			MatchScanner scanner = createScanner(startString, endString, option);
+			while (scanner.find()) {
+				result.add(text.subSequence(scanner.getMatchStart(), scanner.getMatchEnd()).toString());
+			}
+			return result;
+		}
+
+		int mask = toMask(option);
+		checkNotRegex(mask);
+
+		boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(mask);
+		int[] matches = ParallelSearch.findAll(pool, text, new Delimiter(startString, ignoreCase), new Delimiter(endString, ignoreCase),
+				SelectorOptions.INCLUDE_DELIMITERS.isInclude(mask), selections.getEffectiveStart(), selections.getEffectiveEnd());
+
+		for (int i = 0; i < matches.length; i += 2) {
+			result.add(text.subSequence(matches[i], matches[i + 1]).toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Extract many fields from the last selection in one pass over the text. The selection doesn't move.
+	 * 
+	 * @param extraction The fields to extract.
+	 * @return The extracted fields.
+	 * @throws IllegalTextSelectionException if a not OPTIONAL field doesn't exist in the selection.
+	 */
+	public ExtractionResult extractTexts(MultiExtraction extraction) {
+		CheckUtils.checkNull("extraction", extraction);
+
+		return extraction.execute(text, selections.getEffectiveStart(), selections.getEffectiveEnd());
+	}
+
 	/**
 	 * Select the text between the given text. It's a utilitary method.
 	 * 
 	 * @param startString The start string.
 	 * @param endString The end string.
-	 * @param options The selection options.
+	 * @param options The selection options bit mask.
 	 * @return True if the text was selected, False if wan't. Only available with Optional option.
 	 */
-	private boolean setSelection(String startString, String endString, SelectorOptions... options) {
-		CheckUtils.checkNull("options", options);
-
-		String tempText = text.toString();
-		if (SelectorOptions.IGNORE_CASE.isInclude(options)) {
-			tempText = tempText.toLowerCase();
+	private boolean setSelection(String startString, String endString, int options) {
+		SelectionResult.Status status = select(startString, endString, options);
+
+		if ((status == SelectionResult.Status.SELECTED) || (SelectorOptions.OPTIONAL.isInclude(options))) {
+			return status == SelectionResult.Status.SELECTED;
+		} else if (status == SelectionResult.Status.START_NOT_FOUND) {
+			throwTextNotFound("Start", startString, options);
+		} else {
+			throwTextNotFound("End", endString, options);
 		}
+		return false;
+	}
 
-		SelectionRange lastRange = getLastSelection();
+	/**
+	 * Select the text between the given text, returning a result instead of throwing an exception if it's not found.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param options The selection options bit mask.
+	 * @return The result of the selection.
+	 */
+	private SelectionResult trySelection(String startString, String endString, int options) {
+		SelectionResult.Status status = select(startString, endString, options);
 
-		int start = lastRange.getEffectiveStart();
-		if (startString != null) {
-			if (SelectorOptions.IGNORE_CASE.isInclude(options)) {
-				startString = startString.toLowerCase();
-			}
-			start = tempText.indexOf(startString, lastRange.getEffectiveStart());
+		if (status != SelectionResult.Status.SELECTED) {
+			return SelectionResult.missed(status);
 		}
+		return SelectionResult.selected(selections.getStart(), selections.getEnd(), selections.getEffectiveStart(), selections.getEffectiveEnd());
+	}
 
-		if (((start < 0) || (start > lastRange.getEffectiveEnd())) && (SelectorOptions.OPTIONAL.isInclude(options))) {
-			return false;
-		} else if ((start < 0) || (start > lastRange.getEffectiveEnd())) {
-			throwTextNotFound("Start text: \"#\" not found.", startString);
+	/**
+	 * Select the text between the given text, if it's found.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param options The selection options bit mask.
+	 * @return The status of the selection.
+	 */
+	private SelectionResult.Status select(String startString, String endString, int options) {
+		int lastEffectiveStart = selections.getEffectiveStart();
+		int lastEffectiveEnd = selections.getEffectiveEnd();
+
+		int start = lastEffectiveStart;
+		int effectiveStart = lastEffectiveStart;
+		if (startString != null) {
+			start = find(startString, lastEffectiveStart, lastEffectiveEnd, options);
+			effectiveStart = matchEnd;
 		}
 
-		int effectiveStart = start + ((startString != null) ? startString.length() : 0);
-		if ((effectiveStart > lastRange.getEffectiveEnd()) && (SelectorOptions.OPTIONAL.isInclude(options))) {
-			return false;
-		} else if (effectiveStart > lastRange.getEffectiveEnd()) {
-			throwTextNotFound("Start text: \"#\" not found.", startString);
+		if (start < 0) {
+			return SelectionResult.Status.START_NOT_FOUND;
 		}
 
-		int effectiveEnd = lastRange.getEffectiveEnd();
+		int effectiveEnd = lastEffectiveEnd;
+		int end = lastEffectiveEnd;
 		if (endString != null) {
-			if (SelectorOptions.IGNORE_CASE.isInclude(options)) {
-				endString = endString.toLowerCase();
-			}
-			effectiveEnd = tempText.indexOf(endString, effectiveStart);
+			effectiveEnd = find(endString, effectiveStart, lastEffectiveEnd, options);
+			end = matchEnd;
 		}
 
-		if (((effectiveEnd < 0) || (effectiveEnd > lastRange.getEffectiveEnd())) && (SelectorOptions.OPTIONAL.isInclude(options))) {
-			return false;
-		} else if ((effectiveEnd < 0) || (effectiveEnd > lastRange.getEffectiveEnd())) {
-			throwTextNotFound("End text: \"#\" not found.", endString);
+		if (effectiveEnd < 0) {
+			return SelectionResult.Status.END_NOT_FOUND;
 		}
 
-		int end = effectiveEnd + ((endString != null) ? endString.length() : 0);
-		if ((end > lastRange.getEffectiveEnd()) && (SelectorOptions.OPTIONAL.isInclude(options))) {
-			return false;
-		} else if (end > lastRange.getEffectiveEnd()) {
-			throwTextNotFound("End text: \"#\" not found.", endString);
+		if (!SelectorOptions.NO_MOVE.isInclude(options)) {
+			selections.setEffectiveStart(end);
 		}
 
 		boolean includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(options);
-		selections.add(new SelectionRange(start, end, ((includeDelimiters) ? start : effectiveStart), ((includeDelimiters) ? end : effectiveEnd)));
+		selections.push(start, end, ((includeDelimiters) ? start : effectiveStart), ((includeDelimiters) ? end : effectiveEnd));
+		return SelectionResult.Status.SELECTED;
+	}
 
-		if (!SelectorOptions.NO_MOVE.isInclude(options)) {
-			lastRange.setEffectiveStart(end);
+	/**
+	 * Find a delimiter inside a region of the text, as a literal string or as a regular expression if the options
+	 * include {@link SelectorOptions#REGEX}. The end of the occurrence is kept in {@link #matchEnd}.
+	 * 
+	 * @param string The delimiter.
+	 * @param from The region start.
+	 * @param to The region end, the occurrence must end inside it.
+	 * @param options The selection options bit mask.
+	 * @return The position of the occurrence, -1 if it's not found.
+	 */
+	private int find(String string, int from, int to, int options) {
+		CheckUtils.optionalCheckNull("string", string);
+
+		if (SelectorOptions.REGEX.isInclude(options)) {
+			int flags = (SelectorOptions.IGNORE_CASE.isInclude(options)) ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+			Matcher matcher = PATTERNS.get(string, flags).matcher(text).region(from, to);
+
+			if (!matcher.find()) {
+				return -1;
+			}
+			matchEnd = matcher.end();
+			return matcher.start();
+		}
+
+		boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(options);
+		int position;
+		if ((index != null) && (to - from >= INDEX_THRESHOLD) && (index.canSearch(string.length()))) {
+			position = index.indexOf(text, string, from, to, ignoreCase);
+		} else {
+			position = TextSearch.indexOf(text, string, from, to, ignoreCase);
+		}
+		matchEnd = position + string.length();
+		return position;
+	}
+
+	/**
+	 * Check that the options don't include {@link SelectorOptions#REGEX}, that is only supported by the selection
+	 * methods.
+	 * 
+	 * @param mask The options bit mask.
+	 */
+	private static void checkNotRegex(int mask) {
+		if (SelectorOptions.REGEX.isInclude(mask)) {
+			throw new IllegalArgumentException("The REGEX option is not supported by the repeated extractions");
 		}
-		return true;
 	}
 
 	/**
-	 * Get the last text selection.
+	 * Pack the selection options into a bit mask.
 	 * 
-	 * @return The last selection if there is a text selected, a whole selection if is not a text selected.
+	 * @param options The selection options.
+	 * @return The bit mask.
 	 */
-	private SelectionRange getLastSelection() {
-		return selections.get(selections.size() - 1);
+	private static int toMask(SelectorOptions... options) {
+		CheckUtils.checkNull("options", options);
+
+		return SelectorOptions.toMask(options);
+	}
+
+	/**
+	 * Create a scanner of the repeated occurrences of a selection inside the last selection.
+	 * 
+	 * @param startString The start string.
+	 * @param endString The end string.
+	 * @param options The selection options.
+	 * @return The scanner.
+	 */
+	private MatchScanner createScanner(String startString, String endString, SelectorOptions... options) {
+		int mask = toMask(options);
+		checkNotRegex(mask);
+
+		boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(mask);
+		Delimiter start = (startString != null) ? new Delimiter(startString, ignoreCase) : null;
+		Delimiter end = (endString != null) ? new Delimiter(endString, ignoreCase) : null;
+
+		return new MatchScanner(text, start, end, SelectorOptions.INCLUDE_DELIMITERS.isInclude(mask), selections.getEffectiveStart(), selections.getEffectiveEnd());
 	}
 
 	/**
 	 * Throw a error message indicating the text value
 	 * 
-	 * @param errMsg The error message, must contains one # character. It will be replaced for the value.
+	 * @param name The delimiter name, Start or End.
 	 * @param value The value.
+	 * @param options The selection options bit mask, the stack trace is not filled with NO_STACK_TRACE.
+	 */
+	private void throwTextNotFound(String name, String value, int options) {
+		if (CheckUtils.isOptionalCheckEnabled()) {
+			CheckUtils.checkString("name", name);
+			CheckUtils.checkNull("value", value);
+		}
+
+		String message = name + " text: \"" + value + "\" not found.";
+		throw new IllegalTextSelectionException(message, !SelectorOptions.NO_STACK_TRACE.isInclude(options));
+	}
+
+	/**
+	 * A spliterator over the occurrences found by a scanner.
+	 * 
+	 * @param <T> The type of the elements.
 	 */
-	private void throwTextNotFound(String errMsg, String value) {
-		CheckUtils.checkString("errMsg", errMsg);
-		CheckUtils.checkNull("value", value);
+	private abstract static class MatchSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+		private final MatchScanner scanner;
+
+		private MatchSpliterator(MatchScanner scanner) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.scanner = scanner;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (!scanner.find()) {
+				return false;
+			}
+			action.accept(create(scanner.getMatchStart(), scanner.getMatchEnd()));
+			return true;
+		}
 
-		throw new IllegalTextSelectionException(errMsg.replace("#", value));
+		/**
+		 * Create the element of one occurrence.
+		 * 
+		 * @param start The occurrence start.
+		 * @param end The occurrence end.
+		 * @return The element.
+		 */
+		protected abstract T create(int start, int end);
 	}
 }
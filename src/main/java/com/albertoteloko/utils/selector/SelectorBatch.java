@@ -0,0 +1,531 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.ExceptionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class runs one extraction over many files, reading and parsing them in a pool of workers.
+ * <p>
+ * The caller thread submits the files, but never more than maxPending at the same time, so a slow sink or slow
+ * workers stop the submission instead of queueing the whole batch. The results are given to the sink from the caller
+ * thread, so the sink doesn't need to be thread safe, in completion order or in input order. A file that can't be read
+ * or parsed is given to the sink as a failure, and the batch goes on. A directory that can't be read is given to the
+ * sink as a failure too.
+ * <p>
+ * The counters are reset when a batch starts and can be read from any thread while it runs. A batch can't be run
+ * twice at the same time.
+ *
+ * @param <R> The type of the extraction result.
+ */
+public final class SelectorBatch<R> {
+    private final Function<Selector, R> extraction;
+    private final Charset charset;
+    private final int threads;
+    private final int maxPending;
+    private final boolean ordered;
+
+    private final LongAdder processedFiles = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+    private final LongAdder readBytes = new LongAdder();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long startTime;
+    private volatile long endTime;
+
+    /**
+     * Constructor.
+     *
+     * @param builder The builder with the batch settings.
+     */
+    private SelectorBatch(Builder<R> builder) {
+        this.extraction = builder.extraction;
+        this.charset = builder.charset;
+        this.threads = builder.threads;
+        this.maxPending = (builder.maxPending > 0) ? builder.maxPending : builder.threads * 4;
+        this.ordered = builder.ordered;
+    }
+
+    /**
+     * Create a builder to define a new batch.
+     *
+     * @param extraction The extraction run over the selector of each file.
+     * @param <R>        The type of the extraction result.
+     * @return The builder.
+     */
+    public static <R> Builder<R> builder(Function<Selector, R> extraction) {
+        return new Builder<R>(extraction);
+    }
+
+    /**
+     * Run the extraction over all the regular files of a directory and its subdirectories. The files are submitted
+     * while the directories are walked, and the files and directories that can't be visited are given to the sink as
+     * failures.
+     *
+     * @param directory The directory.
+     * @param sink      The sink of the results.
+     * @throws IllegalStateException If the batch is already running.
+     */
+    public void run(File directory, Sink<R> sink) {
+        CheckUtils.checkNull("directory", directory);
+        CheckUtils.checkNull("sink", sink);
+
+        final Path root = directory.toPath();
+        execute(sink, new FileSource() {
+            @Override
+            void submit(final Run run) throws IOException, InterruptedException {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile()) {
+                            return run.submit(file.toFile());
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException cause) {
+                        return run.fail(file.toFile(), cause);
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path directory, IOException cause) {
+                        return (cause != null) ? run.fail(directory.toFile(), cause) : FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Run the extraction over some files. The files are read lazily, as they are submitted.
+     *
+     * @param files The files.
+     * @param sink  The sink of the results.
+     * @throws IllegalStateException If the batch is already running.
+     */
+    public void run(final Iterable<File> files, Sink<R> sink) {
+        CheckUtils.checkNull("files", files);
+        CheckUtils.checkNull("sink", sink);
+
+        execute(sink, new FileSource() {
+            @Override
+            void submit(Run run) {
+                for (File file : files) {
+                    if (run.submit(file) == FileVisitResult.TERMINATE) {
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Run the extraction over the files of a source.
+     *
+     * @param sink   The sink of the results.
+     * @param source The source of the files.
+     * @throws IllegalStateException If the batch is already running.
+     */
+    private void execute(Sink<R> sink, FileSource source) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("The batch is already running");
+        }
+
+        try {
+            processedFiles.reset();
+            failedFiles.reset();
+            readBytes.reset();
+            startTime = System.nanoTime();
+            endTime = 0;
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                Run run = new Run(executor, sink);
+                source.submit(run);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                run.finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ExceptionUtils.throwRuntimeException(e);
+            } catch (IOException e) {
+                ExceptionUtils.throwRuntimeException(e);
+            } finally {
+                executor.shutdownNow();
+                endTime = System.nanoTime();
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The number of files extracted in the current or last batch.
+     */
+    public long getProcessedFiles() {
+        return processedFiles.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The number of files that failed in the current or last batch.
+     */
+    public long getFailedFiles() {
+        return failedFiles.sum();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The number of bytes read in the current or last batch.
+     */
+    public long getReadBytes() {
+        return readBytes.sum();
+    }
+
+    /**
+     * Return the time taken by the current or last batch.
+     *
+     * @param unit The time unit.
+     * @return The elapsed time, 0 if there wasn't any batch.
+     */
+    public long getElapsedTime(TimeUnit unit) {
+        CheckUtils.checkNull("unit", unit);
+
+        long start = startTime;
+        if (start == 0) {
+            return 0;
+        }
+
+        long end = endTime;
+        return unit.convert(((end != 0) ? end : System.nanoTime()) - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Return the throughput in files of the current or last batch.
+     *
+     * @return The files, extracted or failed, per second.
+     */
+    public double getFilesPerSecond() {
+        return perSecond(getProcessedFiles() + getFailedFiles());
+    }
+
+    /**
+     * Return the throughput in bytes of the current or last batch.
+     *
+     * @return The bytes read per second.
+     */
+    public double getBytesPerSecond() {
+        return perSecond(getReadBytes());
+    }
+
+    /**
+     * Divide a counter by the elapsed time.
+     *
+     * @param count The counter.
+     * @return The count per second.
+     */
+    private double perSecond(long count) {
+        long elapsed = getElapsedTime(TimeUnit.NANOSECONDS);
+
+        return (elapsed > 0) ? count * 1e9 / elapsed : 0;
+    }
+
+    /**
+     * Read and extract one file.
+     *
+     * @param index The file index.
+     * @param file  The file.
+     * @return The outcome of the extraction.
+     */
+    private Outcome<R> process(int index, File file) {
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            readBytes.add(bytes.length);
+
+            R result = extraction.apply(new Selector((CharSequence) new String(bytes, charset)));
+            processedFiles.increment();
+            return new Outcome<R>(index, file, result, null);
+        } catch (Throwable e) {
+            failedFiles.increment();
+            return new Outcome<R>(index, file, null, e);
+        }
+    }
+
+    /**
+     * The sink of the results of a batch. It's always called from the thread that runs the batch.
+     *
+     * @param <R> The type of the extraction result.
+     */
+    public interface Sink<R> {
+
+        /**
+         * Called for each file extracted.
+         *
+         * @param file   The file.
+         * @param result The extraction result.
+         */
+        void onResult(File file, R result);
+
+        /**
+         * Called for each file that can't be read or extracted.
+         *
+         * @param file  The file.
+         * @param cause The failure cause.
+         */
+        void onFailure(File file, Throwable cause);
+    }
+
+    /**
+     * The source of the files of one batch run.
+     */
+    private abstract class FileSource {
+
+        /**
+         * Submit all the files to a run.
+         *
+         * @param run The run.
+         * @throws IOException          If the files can't be listed.
+         * @throws InterruptedException If the thread is interrupted while it submits the files.
+         */
+        abstract void submit(Run run) throws IOException, InterruptedException;
+    }
+
+    /**
+     * The state of one batch run.
+     */
+    private final class Run {
+        private final ExecutorService executor;
+        private final Sink<R> sink;
+        private final BlockingQueue<Outcome<R>> completed = new LinkedBlockingQueue<Outcome<R>>();
+        // The completed outcomes waiting for the previous files, only in input order
+        private final Map<Integer, Outcome<R>> waiting = new HashMap<Integer, Outcome<R>>();
+        private int submitted;
+        private int emitted;
+
+        /**
+         * Constructor.
+         *
+         * @param executor The workers.
+         * @param sink     The sink of the results.
+         */
+        private Run(ExecutorService executor, Sink<R> sink) {
+            this.executor = executor;
+            this.sink = sink;
+        }
+
+        /**
+         * Submit one file, emitting the outcomes already completed. If the thread is interrupted while it waits for
+         * the workers, the interruption is kept and the submission must stop.
+         *
+         * @param file The file.
+         * @return CONTINUE to go on, TERMINATE if the thread was interrupted.
+         */
+        private FileVisitResult submit(final File file) {
+            try {
+                while (submitted - emitted >= maxPending) {
+                    accept(completed.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return FileVisitResult.TERMINATE;
+            }
+
+            final int index = submitted++;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    completed.add(process(index, file));
+                }
+            });
+
+            Outcome<R> outcome;
+            while ((outcome = completed.poll()) != null) {
+                accept(outcome);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Emit the failure of a file that can't be visited, in its turn.
+         *
+         * @param file  The file.
+         * @param cause The failure cause.
+         * @return CONTINUE to go on.
+         */
+        private FileVisitResult fail(File file, Throwable cause) {
+            failedFiles.increment();
+            accept(new Outcome<R>(submitted++, file, null, cause));
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Wait for the files submitted and emit their outcomes.
+         *
+         * @throws InterruptedException If the thread is interrupted while it waits for the workers.
+         */
+        private void finish() throws InterruptedException {
+            while (emitted < submitted) {
+                accept(completed.take());
+            }
+        }
+
+        /**
+         * Emit an outcome, or keep it until the previous files are emitted.
+         *
+         * @param outcome The outcome.
+         */
+        private void accept(Outcome<R> outcome) {
+            if (!ordered) {
+                emit(outcome);
+                return;
+            }
+
+            waiting.put(outcome.index, outcome);
+            Outcome<R> next;
+            while ((next = waiting.remove(emitted)) != null) {
+                emit(next);
+            }
+        }
+
+        /**
+         * Give an outcome to the sink.
+         *
+         * @param outcome The outcome.
+         */
+        private void emit(Outcome<R> outcome) {
+            emitted++;
+
+            if (outcome.failure != null) {
+                sink.onFailure(outcome.file, outcome.failure);
+            } else {
+                sink.onResult(outcome.file, outcome.result);
+            }
+        }
+    }
+
+    /**
+     * The outcome of one file.
+     *
+     * @param <R> The type of the extraction result.
+     */
+    private static final class Outcome<R> {
+        private final int index;
+        private final File file;
+        private final R result;
+        private final Throwable failure;
+
+        private Outcome(int index, File file, R result, Throwable failure) {
+            this.index = index;
+            this.file = file;
+            this.result = result;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * The builder of a {@link SelectorBatch}.
+     *
+     * @param <R> The type of the extraction result.
+     */
+    public static final class Builder<R> {
+        private final Function<Selector, R> extraction;
+        private Charset charset = StandardCharsets.UTF_8;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int maxPending = -1;
+        private boolean ordered;
+
+        /**
+         * Constructor.
+         *
+         * @param extraction The extraction run over the selector of each file.
+         */
+        private Builder(Function<Selector, R> extraction) {
+            CheckUtils.checkNull("extraction", extraction);
+
+            this.extraction = extraction;
+        }
+
+        /**
+         * Set the charset of the files, UTF-8 by default.
+         *
+         * @param charset The files charset.
+         * @return This to concatenate calls.
+         */
+        public Builder<R> charset(Charset charset) {
+            CheckUtils.checkNull("charset", charset);
+
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Set the number of workers, the number of processors by default.
+         *
+         * @param threads The number of workers.
+         * @return This to concatenate calls.
+         */
+        public Builder<R> threads(int threads) {
+            CheckUtils.checkIntBigger("threads", threads, 1);
+
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Set the max number of files submitted and not emitted yet, four per worker by default.
+         *
+         * @param maxPending The max number of pending files.
+         * @return This to concatenate calls.
+         */
+        public Builder<R> maxPending(int maxPending) {
+            CheckUtils.checkIntBigger("maxPending", maxPending, 1);
+
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * Set if the results are given to the sink in input order, or in completion order by default.
+         *
+         * @param ordered True to keep the input order.
+         * @return This to concatenate calls.
+         */
+        public Builder<R> ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Build the batch.
+         *
+         * @return The batch.
+         */
+        public SelectorBatch<R> build() {
+            return new SelectorBatch<R>(this);
+        }
+    }
+}
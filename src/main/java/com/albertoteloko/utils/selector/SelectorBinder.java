@@ -0,0 +1,451 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.ExceptionUtils;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class extracts records from texts, following the {@link SelectorField} annotations of the record fields.
+ * <p>
+ * The annotations are compiled once into a {@link SelectorQuery} and a method handle for each field, so binding a text
+ * doesn't use reflection. The handles are kept in fields, so the JIT doesn't inline them as constants and each field
+ * costs one indirect call more than a hand written extraction, SelectorBinderBenchmark compares both. The int, long,
+ * boolean and double fields are parsed straight from the text, without creating an intermediate string. Only the
+ * doubles with more than 15 significant digits, an exponent out of the exactly representable powers of ten or the
+ * special forms of {@link Double#parseDouble(String)} go through a string.
+ * <p>
+ * The supported field types are String, CharSequence, TextView, TextRange, int, long, boolean, double and their
+ * wrappers. The record class needs a constructor without parameters.
+ * <p>
+ * This class is immutable and can be shared between threads.
+ *
+ * @param <T> The record type.
+ */
+public final class SelectorBinder<T> {
+    // The max significant digits of a double parsed from the text, their value is an exact double
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    // The powers of ten that are exact doubles
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final SelectorQuery query;
+    private final FieldKind[] kinds;
+    private final MethodHandle[] setters;
+
+    /**
+     * Constructor.
+     *
+     * @param type The record type.
+     */
+    private SelectorBinder(Class<T> type) {
+        this.type = type;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Constructor<T> recordConstructor = type.getDeclaredConstructor();
+            recordConstructor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(recordConstructor).asType(MethodType.methodType(Object.class));
+
+            List<Field> fields = getFields(type);
+            SelectorQuery.Builder builder = SelectorQuery.builder();
+            this.kinds = new FieldKind[fields.size()];
+            this.setters = new MethodHandle[fields.size()];
+
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                kinds[i] = FieldKind.of(field);
+                field.setAccessible(true);
+                setters[i] = lookup.unreflectSetter(field).asType(kinds[i].setterType);
+                addStep(builder, field.getAnnotation(SelectorField.class));
+            }
+            this.query = builder.build();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("The class " + type.getName() + " doesn't have a constructor without parameters", e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The class " + type.getName() + " can't be accessed", e);
+        }
+    }
+
+    /**
+     * Compile the annotations of a record class.
+     *
+     * @param type The record type.
+     * @param <T>  The record type.
+     * @return The binder.
+     * @throws IllegalArgumentException If the class can't be instantiated, or a field is final, static, of an
+     *                                  unsupported type or has the REGEX option.
+     */
+    public static <T> SelectorBinder<T> of(Class<T> type) {
+        CheckUtils.checkNull("type", type);
+
+        return new SelectorBinder<T>(type);
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The record type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Extract a new record from a text.
+     *
+     * @param text The text to parser.
+     * @return The record.
+     * @throws IllegalTextSelectionException if a not OPTIONAL field doesn't exist in the text.
+     * @throws NumberFormatException         if a numeric field can't be parsed.
+     */
+    public T bind(CharSequence text) {
+        CheckUtils.checkNull("text", text);
+
+        ExtractionResult result = query.execute(text);
+        try {
+            Object record = constructor.invokeExact();
+
+            for (int i = 0; i < kinds.length; i++) {
+                if (result.isFound(i)) {
+                    set(record, i, text, result.getStart(i), result.getEnd(i));
+                }
+            }
+            return type.cast(record);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            ExceptionUtils.throwRuntimeException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Set one field of a record.
+     *
+     * @param record The record.
+     * @param field  The field index.
+     * @param text   The text.
+     * @param start  The field text start.
+     * @param end    The field text end.
+     * @throws Throwable If the setter fails.
+     */
+    private void set(Object record, int field, CharSequence text, int start, int end) throws Throwable {
+        MethodHandle setter = setters[field];
+
+        switch (kinds[field]) {
+            case INT:
+                setter.invokeExact(record, parseInt(text, start, end));
+                break;
+            case LONG:
+                setter.invokeExact(record, parseLong(text, start, end));
+                break;
+            case BOOLEAN:
+                setter.invokeExact(record, parseBoolean(text, start, end));
+                break;
+            case DOUBLE:
+                setter.invokeExact(record, parseDouble(text, start, end));
+                break;
+            case INTEGER_OBJECT:
+                setter.invokeExact(record, (Object) Integer.valueOf(parseInt(text, start, end)));
+                break;
+            case LONG_OBJECT:
+                setter.invokeExact(record, (Object) Long.valueOf(parseLong(text, start, end)));
+                break;
+            case BOOLEAN_OBJECT:
+                setter.invokeExact(record, (Object) Boolean.valueOf(parseBoolean(text, start, end)));
+                break;
+            case DOUBLE_OBJECT:
+                setter.invokeExact(record, (Object) Double.valueOf(parseDouble(text, start, end)));
+                break;
+            case VIEW:
+                setter.invokeExact(record, (Object) new TextView(text, start, end));
+                break;
+            case RANGE:
+                setter.invokeExact(record, (Object) new TextRange(start, end));
+                break;
+            default:
+                setter.invokeExact(record, (Object) text.subSequence(start, end).toString());
+                break;
+        }
+    }
+
+    /**
+     * Add the extraction step of one field.
+     *
+     * @param builder    The query builder.
+     * @param annotation The field annotation.
+     */
+    private static void addStep(SelectorQuery.Builder builder, SelectorField annotation) {
+        String start = annotation.start();
+        String end = annotation.end();
+        SelectorOptions[] options = annotation.options();
+        if (SelectorOptions.REGEX.isInclude(options)) {
+            throw new IllegalArgumentException("The REGEX option is not supported by the binder");
+        }
+
+        if ((!start.isEmpty()) && (!end.isEmpty())) {
+            builder.extractText(start, end, options);
+        } else if (!start.isEmpty()) {
+            builder.extractTextToEnd(start, options);
+        } else if (!end.isEmpty()) {
+            builder.extractTextFromStart(end, options);
+        } else {
+            builder.extractText();
+        }
+    }
+
+    /**
+     * Get the annotated fields of a class and its super classes, in extraction order.
+     *
+     * @param type The class.
+     * @return The fields.
+     */
+    private static List<Field> getFields(Class<?> type) {
+        List<Field> fields = new ArrayList<Field>();
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            List<Field> declared = new ArrayList<Field>();
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(SelectorField.class)) {
+                    declared.add(field);
+                }
+            }
+            fields.addAll(0, declared);
+        }
+
+        Collections.sort(fields, new Comparator<Field>() {
+            @Override
+            public int compare(Field field1, Field field2) {
+                return Integer.compare(field1.getAnnotation(SelectorField.class).order(), field2.getAnnotation(SelectorField.class).order());
+            }
+        });
+        return fields;
+    }
+
+    /**
+     * Parse a decimal int from a region of a text, with the same rules than {@link Integer#parseInt(String)}.
+     *
+     * @param text  The text.
+     * @param start The region start.
+     * @param end   The region end.
+     * @return The int.
+     * @throws NumberFormatException If the region is not a valid int.
+     */
+    private static int parseInt(CharSequence text, int start, int end) {
+        long value = parseLong(text, start, end);
+
+        if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE)) {
+            throw numberFormatException(text, start, end);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a decimal long from a region of a text, with the same rules than {@link Long#parseLong(String)}.
+     *
+     * @param text  The text.
+     * @param start The region start.
+     * @param end   The region end.
+     * @return The long.
+     * @throws NumberFormatException If the region is not a valid long.
+     */
+    private static long parseLong(CharSequence text, int start, int end) {
+        if (start >= end) {
+            throw numberFormatException(text, start, end);
+        }
+
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        int position = start;
+        char first = text.charAt(position);
+
+        if ((first == '-') || (first == '+')) {
+            negative = first == '-';
+            limit = (negative) ? Long.MIN_VALUE : limit;
+            position++;
+
+            if (position == end) {
+                throw numberFormatException(text, start, end);
+            }
+        }
+
+        // The value is accumulated as a negative number, that has a bigger range
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        while (position < end) {
+            int digit = Character.digit(text.charAt(position++), 10);
+
+            if ((digit < 0) || (result < multiplyLimit)) {
+                throw numberFormatException(text, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(text, start, end);
+            }
+            result -= digit;
+        }
+        return (negative) ? result : -result;
+    }
+
+    /**
+     * Parse a double from a region of a text, with the same rules than {@link Double#parseDouble(String)}.
+     * <p>
+     * A plain decimal, with sign, fraction and exponent, of up to 15 significant digits is an exact long, and it's
+     * multiplied or divided by an exact power of ten, so its value is correctly rounded. Any other region is parsed
+     * through a string.
+     *
+     * @param text  The text.
+     * @param start The region start.
+     * @param end   The region end.
+     * @return The double.
+     * @throws NumberFormatException If the region is not a valid double.
+     */
+    private static double parseDouble(CharSequence text, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if ((position < end) && ((text.charAt(position) == '-') || (text.charAt(position) == '+'))) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; position < end; position++) {
+            char c = text.charAt(position);
+
+            if ((c == '.') && (!fraction)) {
+                fraction = true;
+            } else if ((c >= '0') && (c <= '9')) {
+                digits++;
+                if ((significantDigits > 0) || (c != '0')) {
+                    significantDigits++;
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else {
+                break;
+            }
+        }
+
+        if ((position < end) && (digits > 0) && ((text.charAt(position) == 'e') || (text.charAt(position) == 'E'))) {
+            position++;
+            boolean negativeExponent = false;
+            if ((position < end) && ((text.charAt(position) == '-') || (text.charAt(position) == '+'))) {
+                negativeExponent = text.charAt(position) == '-';
+                position++;
+            }
+
+            int exponentStart = position;
+            int explicitExponent = 0;
+            while ((position < end) && (position - exponentStart < 4) && (text.charAt(position) >= '0') && (text.charAt(position) <= '9')) {
+                explicitExponent = explicitExponent * 10 + (text.charAt(position++) - '0');
+            }
+            exponent += (negativeExponent) ? -explicitExponent : explicitExponent;
+            digits = (position > exponentStart) ? digits : 0;
+        }
+
+        if ((position < end) || (digits == 0) || (significantDigits > MAX_DOUBLE_DIGITS) || (exponent < -22) || (exponent > 22)) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+
+        double value = (exponent >= 0) ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return (negative) ? -value : value;
+    }
+
+    /**
+     * Parse a boolean from a region of a text, with the same rules than {@link Boolean#parseBoolean(String)}.
+     *
+     * @param text  The text.
+     * @param start The region start.
+     * @param end   The region end.
+     * @return True if the region is "true" ignoring the case, False if it isn't.
+     */
+    private static boolean parseBoolean(CharSequence text, int start, int end) {
+        return (end - start == 4) && (TextSearch.regionMatches(text, start, "true", 0, 4, true));
+    }
+
+    /**
+     * Create the exception of a region that is not a valid number.
+     *
+     * @param text  The text.
+     * @param start The region start.
+     * @param end   The region end.
+     * @return The exception.
+     */
+    private static NumberFormatException numberFormatException(CharSequence text, int start, int end) {
+        return new NumberFormatException("For input string: \"" + text.subSequence(start, end) + "\"");
+    }
+
+    /**
+     * The kind of a record field, with the type of its setter.
+     */
+    private enum FieldKind {
+        INT(int.class), LONG(long.class), BOOLEAN(boolean.class), DOUBLE(double.class), INTEGER_OBJECT(Object.class),
+        LONG_OBJECT(Object.class), BOOLEAN_OBJECT(Object.class), DOUBLE_OBJECT(Object.class), STRING(Object.class),
+        VIEW(Object.class), RANGE(Object.class);
+
+        private final MethodType setterType;
+
+        FieldKind(Class<?> valueType) {
+            this.setterType = MethodType.methodType(void.class, Object.class, valueType);
+        }
+
+        /**
+         * Get the kind of one field.
+         *
+         * @param field The field.
+         * @return The field kind.
+         * @throws IllegalArgumentException If the field is final, static or of an unsupported type.
+         */
+        private static FieldKind of(Field field) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isFinal(modifiers) || Modifier.isStatic(modifiers)) {
+                throw new IllegalArgumentException("The field " + field.getName() + " can't be final nor static");
+            }
+
+            Class<?> fieldType = field.getType();
+            if (fieldType == int.class) {
+                return INT;
+            } else if (fieldType == long.class) {
+                return LONG;
+            } else if (fieldType == boolean.class) {
+                return BOOLEAN;
+            } else if (fieldType == double.class) {
+                return DOUBLE;
+            } else if (fieldType == Integer.class) {
+                return INTEGER_OBJECT;
+            } else if (fieldType == Long.class) {
+                return LONG_OBJECT;
+            } else if (fieldType == Boolean.class) {
+                return BOOLEAN_OBJECT;
+            } else if (fieldType == Double.class) {
+                return DOUBLE_OBJECT;
+            } else if ((fieldType == String.class) || (fieldType == CharSequence.class)) {
+                return STRING;
+            } else if (fieldType == TextView.class) {
+                return VIEW;
+            } else if (fieldType == TextRange.class) {
+                return RANGE;
+            }
+            throw new IllegalArgumentException("The type " + fieldType.getName() + " of the field " + field.getName() + " is not supported");
+        }
+    }
+}
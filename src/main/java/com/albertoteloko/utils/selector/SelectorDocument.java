@@ -0,0 +1,126 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.io.MappedCharSequence;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * This class define an immutable text that can be parsed by many selectors at the same time.
+ * <p>
+ * The document only holds the text, each {@link Selector} created from it carries its own selections, so many
+ * threads can query the same document concurrently without copying it and without locks.
+ */
+public final class SelectorDocument {
+    private final CharSequence text;
+    private final SubstringIndex index;
+
+    /**
+     * Constructor.
+     *
+     * @param text The document text.
+     */
+    public SelectorDocument(String text) {
+        CheckUtils.checkNull("text", text);
+
+        this.text = text;
+        this.index = null;
+    }
+
+    /**
+     * Constructor. The file is memory mapped, so the text is never copied into the heap.
+     *
+     * @param file    The document file.
+     * @param charset The file charset, one of the supported by {@link MappedCharSequence}.
+     * @throws IOException If the file can't be mapped.
+     */
+    public SelectorDocument(File file, Charset charset) throws IOException {
+        this(new MappedCharSequence(file, charset));
+    }
+
+    /**
+     * Constructor. The text is copied once, unless it's already immutable.
+     *
+     * @param text The document text.
+     */
+    public SelectorDocument(CharSequence text) {
+        CheckUtils.checkNull("text", text);
+
+        this.text = ((text instanceof String) || (text instanceof MappedCharSequence)) ? text : text.toString();
+        this.index = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param text  The document text.
+     * @param index The index of the text.
+     */
+    private SelectorDocument(CharSequence text, SubstringIndex index) {
+        this.text = text;
+        this.index = index;
+    }
+
+    /**
+     * Build a copy of this document with a substring index, so the selectors find the strings of at least
+     * gramLength + step - 1 chars without scanning the text. The text is shared, not copied.
+     * <p>
+     * The index takes up to 12 * (length / step) bytes: a bigger step saves memory and build time, and a longer gram
+     * makes the lookups faster, both at the cost of only indexing longer strings. The shorter strings are found
+     * scanning the text as usual.
+     *
+     * @param gramLength The number of chars of the indexed grams.
+     * @param step       The distance between the starts of two indexed grams.
+     * @return The indexed document.
+     */
+    public SelectorDocument index(int gramLength, int step) {
+        return new SelectorDocument(text, new SubstringIndex(text, gramLength, step));
+    }
+
+    /**
+     * Check if the document has a substring index.
+     *
+     * @return True if it's indexed, False if it isn't.
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /**
+     * Create a new selector over this document, with the whole text selected.
+     *
+     * @return The new selector.
+     */
+    public Selector newSelector() {
+        return new Selector(this);
+    }
+
+    /**
+     * Return the document length.
+     *
+     * @return The number of chars.
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The document text.
+     */
+    CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The substring index, null if the document isn't indexed.
+     */
+    SubstringIndex getIndex() {
+        return index;
+    }
+}
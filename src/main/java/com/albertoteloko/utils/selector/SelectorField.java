@@ -0,0 +1,50 @@
+package com.albertoteloko.utils.selector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation define how one field of a record is extracted by a {@link SelectorBinder}.
+ * <p>
+ * The field text is the text between the start and the end strings, with the same semantics than
+ * {@link Selector#extractText(String, String, SelectorOptions...)}. An empty start extracts from the selection start
+ * and an empty end extracts until the selection end. The fields are extracted by order, and then in declaration
+ * order, each one after the previous unless it has the NO_MOVE option.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface SelectorField {
+
+    /**
+     * The start string.
+     *
+     * @return The start string, empty to extract from the selection start.
+     */
+    String start() default "";
+
+    /**
+     * The end string.
+     *
+     * @return The end string, empty to extract until the selection end.
+     */
+    String end() default "";
+
+    /**
+     * The extraction options. The fields with the OPTIONAL option keep their initial value when they aren't found. The
+     * REGEX option is not supported.
+     *
+     * @return The extraction options.
+     */
+    SelectorOptions[] options() default {};
+
+    /**
+     * The extraction order, the fields with the same order are extracted in declaration order.
+     *
+     * @return The extraction order.
+     */
+    int order() default 0;
+}
@@ -3,10 +3,38 @@ package com.albertoteloko.utils.selector;
 
 /**
  * This enum represent the selector options.
- * 
+ * <p>
+ * With REGEX the delimiters are regular expressions, only supported by the selection and extraction methods of
+ * {@link Selector} that select one occurrence. With NO_STACK_TRACE the exception thrown when a delimiter is not found
+ * doesn't fill its stack trace, so it's much cheaper for the callers that catch it to go on.
  */
 public enum SelectorOptions {
-	NO_OPTIONS, NO_MOVE, OPTIONAL, INCLUDE_DELIMITERS, IGNORE_CASE;
+	NO_OPTIONS, NO_MOVE, OPTIONAL, INCLUDE_DELIMITERS, IGNORE_CASE, REGEX, NO_STACK_TRACE;
+
+	private final int mask = 1 << ordinal();
+
+	/**
+	 * Pack some options into a bit mask, to check them without scanning the options again.
+	 * 
+	 * @param options The options.
+	 * @return The bit mask.
+	 */
+	public static int toMask(SelectorOptions... options) {
+		int result = 0;
+		for (SelectorOptions selectorOptions : options) {
+			result |= selectorOptions.mask;
+		}
+		return result;
+	}
+
+	/**
+	 * Getter.
+	 * 
+	 * @return The bit of this option.
+	 */
+	public int getMask() {
+		return mask;
+	}
 
 	public boolean isInclude(SelectorOptions... options) {
 		for (SelectorOptions selectorOptions : options) {
@@ -16,4 +44,14 @@ public enum SelectorOptions {
 		}
 		return false;
 	}
+
+	/**
+	 * Check if this option is included in a bit mask.
+	 * 
+	 * @param mask The bit mask built with {@link #toMask(SelectorOptions...)}.
+	 * @return True if it's included, False if isn't.
+	 */
+	public boolean isInclude(int mask) {
+		return (mask & this.mask) != 0;
+	}
 }
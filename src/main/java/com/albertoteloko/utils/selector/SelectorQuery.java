@@ -0,0 +1,356 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextDeselectionException;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class define a sequence of selections and extractions compiled once to be executed against many texts.
+ * <p>
+ * The steps have the same semantics than the {@link Selector} methods with the same name. The delimiters skip tables
+ * and the options are resolved when the query is built, so each execution only scans the text. When an OPTIONAL
+ * selection is not found, the steps until its deselection are skipped and their fields are not found.
+ * <p>
+ * This class is immutable and can be shared between threads.
+ */
+public final class SelectorQuery {
+    private final Step[] steps;
+    private final int fields;
+    private final int maxDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param builder The builder with the steps.
+     */
+    private SelectorQuery(Builder builder) {
+        this.steps = builder.steps.toArray(new Step[builder.steps.size()]);
+        this.fields = builder.fields;
+        this.maxDepth = builder.maxDepth;
+    }
+
+    /**
+     * Create a builder to define a new query.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Return the number of fields that the query extract.
+     *
+     * @return The number of fields.
+     */
+    public int getFields() {
+        return fields;
+    }
+
+    /**
+     * Execute the query over a text.
+     *
+     * @param text The text to parser.
+     * @return The extracted fields, in the same order that the extractions were defined.
+     * @throws IllegalTextSelectionException if a not OPTIONAL selection doesn't exist in the text.
+     */
+    public ExtractionResult execute(CharSequence text) {
+        CheckUtils.checkNull("text", text);
+
+        int[] offsets = new int[fields * 2];
+        Arrays.fill(offsets, -1);
+
+        int[] selections = new int[(maxDepth + 1) * 2];
+        selections[1] = text.length();
+        int last = 0;
+
+        int index = 0;
+        while (index < steps.length) {
+            Step step = steps[index];
+
+            switch (step.type) {
+                case SELECT:
+                    if (!step.select(text, selections, last)) {
+                        index = step.next;
+                        continue;
+                    }
+                    last++;
+                    break;
+                case EXTRACT:
+                    offsets[step.field * 2] = selections[last * 2];
+                    offsets[step.field * 2 + 1] = selections[last * 2 + 1];
+                    break;
+                case DESELECT:
+                    last--;
+                    break;
+            }
+            index++;
+        }
+        return new ExtractionResult(text, offsets);
+    }
+
+    /**
+     * This class build a query with the same methods than the {@link Selector}.
+     */
+    public static final class Builder {
+        private final List<Step> steps = new ArrayList<>();
+        // The indexes of the selections not deselected yet
+        private final List<Integer> open = new ArrayList<>();
+        private int fields;
+        private int maxDepth;
+        private boolean built;
+
+        private Builder() {
+        }
+
+        /**
+         * Select the text between the given text.
+         *
+         * @param startString The start string.
+         * @param endString   The end string.
+         * @param option      The selection option.
+         * @return This to concatenate calls.
+         */
+        public Builder selectText(String startString, String endString, SelectorOptions... option) {
+            CheckUtils.checkNull("startString", startString);
+            CheckUtils.checkNull("endString", endString);
+
+            return addSelection(startString, endString, option);
+        }
+
+        /**
+         * Select the text from the given start string to the selection end.
+         *
+         * @param startString The start string.
+         * @param option      The selection option.
+         * @return This to concatenate calls.
+         */
+        public Builder selectTextToEnd(String startString, SelectorOptions... option) {
+            CheckUtils.checkNull("startString", startString);
+
+            return addSelection(startString, null, option);
+        }
+
+        /**
+         * Select the text from the selection start to the given end string.
+         *
+         * @param endString The end string.
+         * @param option    The selection option.
+         * @return This to concatenate calls.
+         */
+        public Builder selectTextFromStart(String endString, SelectorOptions... option) {
+            CheckUtils.checkNull("endString", endString);
+
+            return addSelection(null, endString, option);
+        }
+
+        /**
+         * Deselect the last selected text.
+         *
+         * @return This to concatenate calls.
+         * @throws IllegalTextDeselectionException if there isn't any selected text
+         */
+        public Builder deselectText() {
+            checkNotBuilt();
+            if (open.isEmpty()) {
+                throw new IllegalTextDeselectionException("There isn't any selected text");
+            }
+
+            int select = open.remove(open.size() - 1);
+            steps.add(new Step(StepType.DESELECT));
+            steps.get(select).next = steps.size();
+            return this;
+        }
+
+        /**
+         * Extract the text include in the last selection as a new field.
+         *
+         * @return This to concatenate calls.
+         */
+        public Builder extractText() {
+            checkNotBuilt();
+
+            Step step = new Step(StepType.EXTRACT);
+            step.field = fields++;
+            steps.add(step);
+            return this;
+        }
+
+        /**
+         * Extract the text between the given text as a new field.
+         *
+         * @param startString The start string.
+         * @param endString   The end string.
+         * @param option      The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractText(String startString, String endString, SelectorOptions... option) {
+            return selectText(startString, endString, option).extractText().deselectText();
+        }
+
+        /**
+         * Extract the text from the given start string to the selection end as a new field.
+         *
+         * @param startString The start string.
+         * @param option      The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractTextToEnd(String startString, SelectorOptions... option) {
+            return selectTextToEnd(startString, option).extractText().deselectText();
+        }
+
+        /**
+         * Extract the text from the selection start to the given end string as a new field.
+         *
+         * @param endString The end string.
+         * @param option    The extraction option.
+         * @return This to concatenate calls.
+         */
+        public Builder extractTextFromStart(String endString, SelectorOptions... option) {
+            return selectTextFromStart(endString, option).extractText().deselectText();
+        }
+
+        /**
+         * Build the query. The builder can't be used anymore.
+         *
+         * @return The compiled query.
+         */
+        public SelectorQuery build() {
+            checkNotBuilt();
+
+            built = true;
+            return new SelectorQuery(this);
+        }
+
+        /**
+         * Check that the query is not built yet.
+         *
+         * @throws IllegalStateException if the query is already built.
+         */
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("The query is already built");
+            }
+        }
+
+        /**
+         * Add a new selection step.
+         *
+         * @param startString The start string.
+         * @param endString   The end string.
+         * @param options     The selection options.
+         * @return This to concatenate calls.
+         */
+        private Builder addSelection(String startString, String endString, SelectorOptions... options) {
+            CheckUtils.checkNull("options", options);
+            checkNotBuilt();
+            if (SelectorOptions.REGEX.isInclude(options)) {
+                throw new IllegalArgumentException("The REGEX option is not supported by the queries");
+            }
+
+            boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(options);
+
+            Step step = new Step(StepType.SELECT);
+            step.start = (startString != null) ? new Delimiter(startString, ignoreCase) : null;
+            step.end = (endString != null) ? new Delimiter(endString, ignoreCase) : null;
+            step.optional = SelectorOptions.OPTIONAL.isInclude(options);
+            step.noMove = SelectorOptions.NO_MOVE.isInclude(options);
+            step.includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(options);
+            step.stackTrace = !SelectorOptions.NO_STACK_TRACE.isInclude(options);
+            step.next = Integer.MAX_VALUE;
+
+            open.add(steps.size());
+            steps.add(step);
+            maxDepth = Math.max(maxDepth, open.size());
+            return this;
+        }
+    }
+
+    /**
+     * The step types.
+     */
+    private enum StepType {
+        SELECT, EXTRACT, DESELECT
+    }
+
+    /**
+     * One step of the query, it's not modified once the query is built.
+     */
+    private static final class Step {
+        private final StepType type;
+        private Delimiter start;
+        private Delimiter end;
+        private boolean optional;
+        private boolean noMove;
+        private boolean includeDelimiters;
+        private boolean stackTrace;
+        // The step to continue when an optional selection is not found
+        private int next;
+        private int field;
+
+        private Step(StepType type) {
+            this.type = type;
+        }
+
+        /**
+         * Push a new selection inside the last one.
+         *
+         * @param text       The text to parser.
+         * @param selections The effective start and end of each selection.
+         * @param last       The index of the last selection.
+         * @return True if the text was selected, False if wasn't and the selection is optional.
+         */
+        private boolean select(CharSequence text, int[] selections, int last) {
+            int lastEffectiveStart = selections[last * 2];
+            int lastEffectiveEnd = selections[last * 2 + 1];
+
+            int startIndex = lastEffectiveStart;
+            if (start != null) {
+                startIndex = start.indexOf(text, lastEffectiveStart, lastEffectiveEnd);
+
+                if (startIndex < 0) {
+                    return notFound("Start", start);
+                }
+            }
+
+            int effectiveStart = startIndex + ((start != null) ? start.length() : 0);
+
+            int effectiveEnd = lastEffectiveEnd;
+            if (end != null) {
+                effectiveEnd = end.indexOf(text, effectiveStart, lastEffectiveEnd);
+
+                if (effectiveEnd < 0) {
+                    return notFound("End", end);
+                }
+            }
+
+            int endIndex = effectiveEnd + ((end != null) ? end.length() : 0);
+
+            selections[(last + 1) * 2] = (includeDelimiters) ? startIndex : effectiveStart;
+            selections[(last + 1) * 2 + 1] = (includeDelimiters) ? endIndex : effectiveEnd;
+
+            if (!noMove) {
+                selections[last * 2] = endIndex;
+            }
+            return true;
+        }
+
+        /**
+         * Return false or throw a error message depending on the optional option.
+         *
+         * @param name      The delimiter name, Start or End.
+         * @param delimiter The delimiter not found.
+         * @return False, if the selection is optional.
+         */
+        private boolean notFound(String name, Delimiter delimiter) {
+            if (!optional) {
+                throw new IllegalTextSelectionException(name + " text: \"" + delimiter.getString() + "\" not found.", stackTrace);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.ExceptionUtils;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextDeselectionException;
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * This class can parser a text read from a stream without loading it whole in memory.
+ * <p>
+ * The text is kept in a sliding window. The selections only move forward and the text already passed by all the
+ * selections is discarded, so a selection have to end inside the window size counted from the first position still
+ * in use. The positions are absolute from the stream start.
+ */
+public class StreamSelector implements Closeable {
+    // The default window size in chars
+    public static final int DEFAULT_WINDOW_SIZE = 1024 * 1024;
+    // The number of chars read from the stream each time
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final int windowSize;
+    private final StringBuilder window;
+    private final char[] readBuffer;
+    // Pairs of effective start and effective end of each selection, the main one has no known end
+    private long[] selections;
+    private int selectionsSize;
+    private long windowOffset;
+    private boolean endOfStream;
+
+    /**
+     * Constructor.
+     *
+     * @param file    The file to parser.
+     * @param charset The file charset.
+     * @throws FileNotFoundException If the file doesn't exist.
+     */
+    public StreamSelector(File file, Charset charset) throws FileNotFoundException {
+        this(new FileInputStream(file), charset);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param input   The stream to parser.
+     * @param charset The stream charset.
+     */
+    public StreamSelector(InputStream input, Charset charset) {
+        this(new InputStreamReader(input, charset));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param channel The channel to parser.
+     * @param charset The channel charset.
+     */
+    public StreamSelector(ReadableByteChannel channel, Charset charset) {
+        this(Channels.newReader(channel, charset.newDecoder(), -1));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param reader The reader to parser.
+     */
+    public StreamSelector(Reader reader) {
+        this(reader, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param reader     The reader to parser.
+     * @param windowSize The max number of chars that a selection can take.
+     */
+    public StreamSelector(Reader reader, int windowSize) {
+        CheckUtils.checkNull("reader", reader);
+        CheckUtils.checkIntBigger("windowSize", windowSize, 1);
+
+        this.reader = reader;
+        this.windowSize = windowSize;
+        this.window = new StringBuilder(Math.min(windowSize, READ_BUFFER_SIZE) * 2);
+        this.readBuffer = new char[READ_BUFFER_SIZE];
+        this.selections = new long[8];
+        this.selections[0] = 0;
+        this.selections[1] = Long.MAX_VALUE;
+        this.selectionsSize = 1;
+    }
+
+    /**
+     * Return the position of the main selection.
+     *
+     * @return The number of chars passed by the main selection.
+     */
+    public long getPosition() {
+        return selections[0];
+    }
+
+    /**
+     * Select the text from the given start string to the selection end.
+     *
+     * @param startString The start string.
+     * @param option      The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the startString text doesn't exist in the selection.
+     */
+    public boolean selectTextToEnd(String startString, SelectorOptions... option) {
+        CheckUtils.checkNull("startString", startString);
+
+        return setSelection(startString, null, option);
+    }
+
+    /**
+     * Select the text from the selection start to the given end string.
+     *
+     * @param endString The end string.
+     * @param option    The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the endString text doesn't exist in the selection.
+     */
+    public boolean selectTextFromStart(String endString, SelectorOptions... option) {
+        CheckUtils.checkNull("endString", endString);
+
+        return setSelection(null, endString, option);
+    }
+
+    /**
+     * Select the text between the given text.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param option      The selection option.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     * @throws IllegalTextSelectionException if the boundaries texts don't exist in the selection.
+     */
+    public boolean selectText(String startString, String endString, SelectorOptions... option) {
+        CheckUtils.checkNull("startString", startString);
+        CheckUtils.checkNull("endString", endString);
+
+        return setSelection(startString, endString, option);
+    }
+
+    /**
+     * Deselect the last selected text .
+     *
+     * @throws IllegalTextDeselectionException if there isn't any selected text
+     */
+    public void deselectText() {
+        if (selectionsSize < 2) {
+            throw new IllegalTextDeselectionException("There isn't any selected text");
+        }
+        selectionsSize--;
+        compact();
+    }
+
+    /**
+     * Check if our selection contains the text given.
+     *
+     * @param string The string to check
+     * @return True if the selection contains the string, false if doesn't.
+     */
+    public boolean containsText(String string) {
+        if (selectTextFromStart(string, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL)) {
+            deselectText();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if our selection contains the text given. Ignoring case.
+     *
+     * @param string The string to check
+     * @return True if the selection contains the string, false if doesn't.
+     */
+    public boolean containsTextIgnoringCase(String string) {
+        if (selectTextFromStart(string, SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE)) {
+            deselectText();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the text include in the last selection.
+     *
+     * @return The extracted text.
+     * @throws IllegalTextSelectionException if there isn't any selected text and the stream end is out of the window.
+     */
+    public String extractText() {
+        int last = selectionsSize - 1;
+        long effectiveStart = selections[last * 2];
+        long effectiveEnd = selections[last * 2 + 1];
+
+        if (effectiveEnd == Long.MAX_VALUE) {
+            effectiveEnd = findStreamEnd();
+            if (effectiveEnd < 0) {
+                streamEndNotFound(false, true);
+            }
+        }
+        return window.substring((int) (effectiveStart - windowOffset), (int) (effectiveEnd - windowOffset));
+    }
+
+    /**
+     * Extract the text between the given text.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param option      The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the boundaries text don't exist in the selection.
+     */
+    public String extractText(String startString, String endString, SelectorOptions... option) {
+        if (selectText(startString, endString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Extract the text from the given start string to the selection end.
+     *
+     * @param startString The start string.
+     * @param option      The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the startString text doesn't exist in the selection.
+     */
+    public String extractTextToEnd(String startString, SelectorOptions... option) {
+        if (selectTextToEnd(startString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Extract the text from the selection start to the given end string.
+     *
+     * @param endString The end string.
+     * @param option    The extraction option.
+     * @return The extracted text. Null if the text is not found and the OPTIONAL option is enabled.
+     * @throws IllegalTextSelectionException if the endString text doesn't exist in the selection.
+     */
+    public String extractTextFromStart(String endString, SelectorOptions... option) {
+        if (selectTextFromStart(endString, option)) {
+            String selection = extractText();
+            deselectText();
+            return selection;
+        }
+        return null;
+    }
+
+    /**
+     * Close the underlying reader.
+     *
+     * @throws IOException If the reader can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Select the text between the given text. It's a utilitary method.
+     *
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param options     The selection options.
+     * @return True if the text was selected, False if wan't. Only available with Optional option.
+     */
+    private boolean setSelection(String startString, String endString, SelectorOptions... options) {
+        CheckUtils.checkNull("options", options);
+        if (SelectorOptions.REGEX.isInclude(options)) {
+            throw new IllegalArgumentException("The REGEX option is not supported by the stream selector");
+        }
+
+        boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(options);
+        boolean optional = SelectorOptions.OPTIONAL.isInclude(options);
+        boolean stackTrace = !SelectorOptions.NO_STACK_TRACE.isInclude(options);
+
+        int last = selectionsSize - 1;
+        long lastEffectiveStart = selections[last * 2];
+        long lastEffectiveEnd = selections[last * 2 + 1];
+
+        long start = lastEffectiveStart;
+        if (startString != null) {
+            start = find(startString, lastEffectiveStart, lastEffectiveEnd, ignoreCase);
+
+            if (start < 0) {
+                return notFound(optional, stackTrace, "Start", startString);
+            }
+        }
+
+        long effectiveStart = start + ((startString != null) ? startString.length() : 0);
+
+        long effectiveEnd;
+        if (endString != null) {
+            effectiveEnd = find(endString, effectiveStart, lastEffectiveEnd, ignoreCase);
+
+            if (effectiveEnd < 0) {
+                return notFound(optional, stackTrace, "End", endString);
+            }
+        } else if (lastEffectiveEnd == Long.MAX_VALUE) {
+            effectiveEnd = findStreamEnd();
+
+            if (effectiveEnd < 0) {
+                return streamEndNotFound(optional, stackTrace);
+            }
+        } else {
+            effectiveEnd = lastEffectiveEnd;
+        }
+
+        long end = effectiveEnd + ((endString != null) ? endString.length() : 0);
+
+        boolean includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(options);
+        push((includeDelimiters) ? start : effectiveStart, (includeDelimiters) ? end : effectiveEnd);
+
+        if (!SelectorOptions.NO_MOVE.isInclude(options)) {
+            selections[last * 2] = end;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Find a string reading from the stream as needed, without reading further than the window.
+     *
+     * @param string     The string to find.
+     * @param from       The first position where the string can start.
+     * @param limit      The position where the string must be ended.
+     * @param ignoreCase True to compare the chars ignoring the case.
+     * @return The absolute position of the string, -1 if it's not found.
+     */
+    private long find(String string, long from, long limit, boolean ignoreCase) {
+        CheckUtils.optionalCheckNull("string", string);
+
+        long maxEnd = Math.min(limit, getFirstRetained() + windowSize);
+        long searchFrom = from;
+
+        while (true) {
+            long to = Math.min(windowOffset + window.length(), maxEnd);
+            if (searchFrom <= to) {
+                int index = TextSearch.indexOf(window, string, (int) (searchFrom - windowOffset), (int) (to - windowOffset), ignoreCase);
+
+                if (index >= 0) {
+                    return windowOffset + index;
+                }
+            }
+            if ((to >= maxEnd) || (!fill())) {
+                return -1;
+            }
+            searchFrom = Math.max(from, to - string.length() + 1);
+        }
+    }
+
+    /**
+     * Read the stream until its end, without reading further than the window.
+     *
+     * @return The absolute position of the stream end, -1 if it's out of the window.
+     */
+    private long findStreamEnd() {
+        long maxEnd = getFirstRetained() + windowSize;
+
+        while (windowOffset + window.length() <= maxEnd) {
+            if (!fill()) {
+                return windowOffset + window.length();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the next block of chars from the stream into the window.
+     *
+     * @return True if some chars were read, False if the stream is ended.
+     */
+    private boolean fill() {
+        if (endOfStream) {
+            return false;
+        }
+
+        try {
+            int read = reader.read(readBuffer);
+
+            if (read < 0) {
+                endOfStream = true;
+                return false;
+            }
+            window.append(readBuffer, 0, read);
+        } catch (IOException e) {
+            ExceptionUtils.throwRuntimeException(e);
+        }
+        return true;
+    }
+
+    /**
+     * Discard the text that any selection can't reach anymore, once it's at least the half of the window.
+     */
+    private void compact() {
+        int discard = (int) (getFirstRetained() - windowOffset);
+
+        if ((discard > 0) && (discard >= window.length() - discard)) {
+            window.delete(0, discard);
+            windowOffset += discard;
+        }
+    }
+
+    /**
+     * Get the first position that some selection still can reach.
+     *
+     * @return The smaller effective start of all the selections.
+     */
+    private long getFirstRetained() {
+        long result = selections[0];
+
+        for (int i = 1; i < selectionsSize; i++) {
+            result = Math.min(result, selections[i * 2]);
+        }
+        return result;
+    }
+
+    /**
+     * Add a new selection.
+     *
+     * @param effectiveStart The effectiveStart position.
+     * @param effectiveEnd   The effectiveEnd position.
+     */
+    private void push(long effectiveStart, long effectiveEnd) {
+        if (selections.length < (selectionsSize + 1) * 2) {
+            selections = Arrays.copyOf(selections, selections.length * 2);
+        }
+        selections[selectionsSize * 2] = effectiveStart;
+        selections[selectionsSize * 2 + 1] = effectiveEnd;
+        selectionsSize++;
+    }
+
+    /**
+     * Return false or throw a error message depending on the optional option.
+     *
+     * @param optional   True if the selection is optional.
+     * @param stackTrace True to fill the stack trace of the exception.
+     * @param name       The delimiter name, Start or End.
+     * @param value      The value.
+     * @return False, if the selection is optional.
+     */
+    private boolean notFound(boolean optional, boolean stackTrace, String name, String value) {
+        if (!optional) {
+            if (CheckUtils.isOptionalCheckEnabled()) {
+                CheckUtils.checkString("name", name);
+                CheckUtils.checkNull("value", value);
+            }
+
+            throw new IllegalTextSelectionException(name + " text: \"" + value + "\" not found.", stackTrace);
+        }
+        return false;
+    }
+
+    /**
+     * Return false or throw a error message depending on the optional option, when the stream end is out of the
+     * window.
+     *
+     * @param optional   True if the selection is optional.
+     * @param stackTrace True to fill the stack trace of the exception.
+     * @return False, if the selection is optional.
+     */
+    private boolean streamEndNotFound(boolean optional, boolean stackTrace) {
+        if (!optional) {
+            throw new IllegalTextSelectionException("Stream end not found in the next " + windowSize + " chars.", stackTrace);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+/**
+ * This class define an n-gram posting index over an immutable text, to find strings without scanning the text.
+ * <p>
+ * The grams of gramLength chars that start every step chars are hashed, ignoring the case, into a table of posting
+ * lists kept as two flat int arrays. A string of at least gramLength + step - 1 chars always contains one indexed gram
+ * for each of its occurrences, so its occurrences are found checking only the positions of its grams. The index takes
+ * up to 12 * (length / step) bytes: 4 for the position of each gram, and up to 8 for the table, that has up to two
+ * buckets per gram. A bigger step saves memory, and a longer gram makes each posting list shorter, both at the cost of
+ * only serving longer strings. This class is immutable.
+ */
+final class SubstringIndex {
+    private final int gramLength;
+    private final int step;
+    private final int mask;
+    // The posting list of each bucket is positions[bucketStarts[bucket]] until positions[bucketStarts[bucket + 1]]
+    private final int[] bucketStarts;
+    private final int[] positions;
+
+    /**
+     * Constructor.
+     *
+     * @param text       The text to index, it must not change.
+     * @param gramLength The number of chars of each gram.
+     * @param step       The distance between the starts of two indexed grams.
+     */
+    SubstringIndex(CharSequence text, int gramLength, int step) {
+        CheckUtils.checkIntBigger("gramLength", gramLength, 1);
+        CheckUtils.checkIntBigger("step", step, 1);
+
+        this.gramLength = gramLength;
+        this.step = step;
+
+        int grams = (text.length() >= gramLength) ? (text.length() - gramLength) / step + 1 : 0;
+        int buckets = Integer.highestOneBit(Math.max(1, grams - 1)) << 1;
+        this.mask = buckets - 1;
+        this.bucketStarts = new int[buckets + 1];
+        this.positions = new int[grams];
+
+        for (int i = 0; i < grams; i++) {
+            bucketStarts[bucket(text, i * step) + 1]++;
+        }
+        for (int i = 0; i < buckets; i++) {
+            bucketStarts[i + 1] += bucketStarts[i];
+        }
+
+        int[] next = new int[buckets];
+        System.arraycopy(bucketStarts, 0, next, 0, buckets);
+        for (int i = 0; i < grams; i++) {
+            positions[next[bucket(text, i * step)]++] = i * step;
+        }
+    }
+
+    /**
+     * Check if a string is long enough to be found with the index.
+     *
+     * @param length The string length.
+     * @return True if it can be found with the index, False if it must be found scanning the text.
+     */
+    boolean canSearch(int length) {
+        return length >= gramLength + step - 1;
+    }
+
+    /**
+     * Find the first occurrence of a string inside a region of the indexed text. The string must be long enough to be
+     * searched with the index.
+     *
+     * @param text       The indexed text.
+     * @param string     The string to find.
+     * @param from       The first position where the occurrence can start.
+     * @param to         The position where the occurrence must be ended.
+     * @param ignoreCase True to compare the chars ignoring the case.
+     * @return The position of the occurrence, -1 if there isn't any.
+     */
+    int indexOf(CharSequence text, String string, int from, int to, boolean ignoreCase) {
+        int length = string.length();
+        int result = -1;
+
+        // Each occurrence at p holds the indexed gram that starts at the next multiple of step, at offset d
+        for (int d = 0; d < step; d++) {
+            int bucket = bucket(string, d);
+            int end = bucketStarts[bucket + 1];
+
+            for (int i = firstPosition(bucket, from + d); i < end; i++) {
+                int candidate = positions[i] - d;
+
+                if (((result >= 0) && (candidate >= result)) || (candidate + length > to)) {
+                    break;
+                }
+                if (TextSearch.regionMatches(text, candidate, string, 0, length, ignoreCase)) {
+                    result = candidate;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the first entry of a posting list with a position not smaller than a minimum.
+     *
+     * @param bucket The bucket of the posting list.
+     * @param min    The minimum position.
+     * @return The entry index, the end of the list if there isn't any.
+     */
+    private int firstPosition(int bucket, int min) {
+        int low = bucketStarts[bucket];
+        int high = bucketStarts[bucket + 1];
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (positions[middle] < min) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the bucket of one gram, hashing its chars folded ignoring the case.
+     *
+     * @param text   The text with the gram.
+     * @param offset The gram start.
+     * @return The bucket.
+     */
+    private int bucket(CharSequence text, int offset) {
+        int hash = 0;
+
+        for (int i = offset; i < offset + gramLength; i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+        }
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,308 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+import com.albertoteloko.utils.ExceptionUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+/**
+ * This class extracts every occurrence of the text between two delimiters from a text that keeps growing, like a
+ * live log, pushing each one to a listener as soon as its end delimiter arrives.
+ * <p>
+ * The text can be given in chunks or read from a followed file. Each char is read only once: the partial matches of
+ * the delimiters are kept as automaton states between chunks, so a delimiter split by a chunk boundary is still found,
+ * and only the text of the occurrence being read is kept in memory. The occurrences have the same semantics than
+ * {@link Selector#extractAll(String, String, SelectorOptions...)}. The empty start delimiter selects from the end of
+ * the previous occurrence, so an end delimiter like a new line splits the text in lines.
+ */
+public class TailSelector implements Closeable {
+    // The number of bytes read from the followed file each time
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final PatternAutomaton startAutomaton;
+    private final PatternAutomaton endAutomaton;
+    private final int startLength;
+    private final int endLength;
+    private final boolean includeDelimiters;
+    private final MatchListener listener;
+    private final StringBuilder match;
+    // The last chars read while the start delimiter is searched, only kept to include the delimiter
+    private final char[] recent;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private long filePosition;
+
+    private long position;
+    private long matchStart;
+    private boolean inMatch;
+    private int startState;
+    private int endState;
+
+    /**
+     * Constructor. The text is given with {@link #append(CharSequence)}.
+     *
+     * @param startString The start string.
+     * @param endString   The end string, it can't be empty.
+     * @param listener    The listener of the occurrences.
+     * @param option      The extraction option.
+     */
+    public TailSelector(String startString, String endString, MatchListener listener, SelectorOptions... option) {
+        this((FileChannel) null, null, startString, endString, listener, option);
+    }
+
+    /**
+     * Constructor. The file is read from its start, and the new text is read with {@link #poll()}.
+     *
+     * @param file        The file to follow.
+     * @param charset     The file charset.
+     * @param startString The start string.
+     * @param endString   The end string, it can't be empty.
+     * @param listener    The listener of the occurrences.
+     * @param option      The extraction option.
+     * @throws IOException If the file can't be opened.
+     */
+    public TailSelector(File file, Charset charset, String startString, String endString, MatchListener listener, SelectorOptions... option) throws IOException {
+        this(openChannel(file), charset, startString, endString, listener, option);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param channel     The channel of the followed file, null if the text is appended.
+     * @param charset     The file charset.
+     * @param startString The start string.
+     * @param endString   The end string.
+     * @param listener    The listener of the occurrences.
+     * @param option      The extraction option.
+     */
+    private TailSelector(FileChannel channel, Charset charset, String startString, String endString, MatchListener listener, SelectorOptions... option) {
+        CheckUtils.checkNull("startString", startString);
+        CheckUtils.checkString("endString", endString);
+        CheckUtils.checkNull("listener", listener);
+        CheckUtils.checkNull("option", option);
+
+        int mask = SelectorOptions.toMask(option);
+        if (SelectorOptions.REGEX.isInclude(mask)) {
+            throw new IllegalArgumentException("The REGEX option is not supported by the tail selector");
+        }
+        boolean ignoreCase = SelectorOptions.IGNORE_CASE.isInclude(mask);
+
+        this.startAutomaton = new PatternAutomaton(Collections.singletonList(startString), ignoreCase);
+        this.endAutomaton = new PatternAutomaton(Collections.singletonList(endString), ignoreCase);
+        this.startLength = startString.length();
+        this.endLength = endString.length();
+        this.includeDelimiters = SelectorOptions.INCLUDE_DELIMITERS.isInclude(mask);
+        this.listener = listener;
+        this.match = new StringBuilder();
+        this.recent = new char[startLength];
+
+        this.channel = channel;
+        if (channel != null) {
+            CheckUtils.checkNull("charset", charset);
+
+            this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            this.chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+        } else {
+            this.decoder = null;
+            this.bytes = null;
+            this.chars = null;
+        }
+        reset();
+    }
+
+    /**
+     * Return the number of chars read.
+     *
+     * @return The number of chars read since the start, or since the followed file was truncated.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Read a new chunk of text, pushing the occurrences ended inside it.
+     *
+     * @param chunk The text chunk.
+     * @return The number of occurrences found.
+     */
+    public int append(CharSequence chunk) {
+        CheckUtils.checkNull("chunk", chunk);
+
+        return scan(chunk, 0, chunk.length());
+    }
+
+    /**
+     * Read the text added to the followed file since the last poll, pushing the occurrences ended inside it. If the
+     * file is smaller than the read bytes, it's considered truncated and it's read again from its start.
+     *
+     * @return The number of occurrences found.
+     * @throws UnsupportedOperationException If the selector doesn't follow a file.
+     */
+    public int poll() {
+        if (channel == null) {
+            throw new UnsupportedOperationException("The selector doesn't follow a file");
+        }
+
+        int found = 0;
+        try {
+            if (channel.size() < filePosition) {
+                filePosition = 0;
+                position = 0;
+                decoder.reset();
+                bytes.clear();
+                reset();
+            }
+
+            int read;
+            while ((read = channel.read(bytes, filePosition)) > 0) {
+                filePosition += read;
+                found += decode();
+            }
+        } catch (IOException e) {
+            ExceptionUtils.throwRuntimeException(e);
+        }
+        return found;
+    }
+
+    /**
+     * Close the followed file, if there is one.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Decode the read bytes, keeping the bytes of an incomplete char for the next read.
+     *
+     * @return The number of occurrences found.
+     */
+    private int decode() {
+        int found = 0;
+        CoderResult result;
+
+        bytes.flip();
+        do {
+            result = decoder.decode(bytes, chars, false);
+            chars.flip();
+            found += scan(chars, 0, chars.length());
+            chars.clear();
+        } while (result.isOverflow());
+        bytes.compact();
+        return found;
+    }
+
+    /**
+     * Read a region of text.
+     *
+     * @param text The text.
+     * @param from The region start.
+     * @param to   The region end.
+     * @return The number of occurrences found.
+     */
+    private int scan(CharSequence text, int from, int to) {
+        int found = 0;
+
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            position++;
+
+            if (inMatch) {
+                match.append(c);
+                endState = endAutomaton.next(endState, c);
+
+                if (endAutomaton.getMatches(endState).length > 0) {
+                    int length = (includeDelimiters) ? match.length() : match.length() - endLength;
+                    listener.onMatch(match.substring(0, length), matchStart);
+                    found++;
+                    reset();
+                }
+            } else {
+                startState = startAutomaton.next(startState, c);
+                if (includeDelimiters) {
+                    recent[(int) (position % startLength)] = c;
+                }
+
+                if (startAutomaton.getMatches(startState).length > 0) {
+                    startMatch();
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Start a new occurrence, once its start delimiter is read.
+     */
+    private void startMatch() {
+        inMatch = true;
+        endState = endAutomaton.getInitialState();
+        matchStart = position;
+
+        if (includeDelimiters) {
+            matchStart -= startLength;
+            for (long i = matchStart + 1; i <= position; i++) {
+                match.append(recent[(int) (i % startLength)]);
+            }
+        }
+    }
+
+    /**
+     * Wait for the start delimiter of the next occurrence.
+     */
+    private void reset() {
+        match.setLength(0);
+        inMatch = false;
+        startState = startAutomaton.getInitialState();
+
+        if (startLength == 0) {
+            startMatch();
+        }
+    }
+
+    /**
+     * The listener of the occurrences found by a {@link TailSelector}.
+     */
+    public interface MatchListener {
+
+        /**
+         * Called for each occurrence, in text order, as soon as it's ended.
+         *
+         * @param text     The occurrence text.
+         * @param position The position of the occurrence start, counted in chars.
+         */
+        void onMatch(String text, long position);
+    }
+
+    /**
+     * Open a file to follow it.
+     *
+     * @param file The file.
+     * @return The file channel.
+     * @throws IOException If the file can't be opened.
+     */
+    private static FileChannel openChannel(File file) throws IOException {
+        CheckUtils.checkNull("file", file);
+
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+}
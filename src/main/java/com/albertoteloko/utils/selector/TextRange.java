@@ -0,0 +1,75 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+/**
+ * This class define the start and end positions of an extracted text. This class is immutable.
+ */
+public final class TextRange {
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructor.
+     *
+     * @param start The start position.
+     * @param end   The end position.
+     */
+    public TextRange(int start, int end) {
+        CheckUtils.checkIntBigger("start", start, 0);
+        CheckUtils.checkIntBigger("end", end, "start", start);
+
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The start position.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return The end position.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Return the number of chars of the range.
+     *
+     * @return The length.
+     */
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TextRange)) {
+            return false;
+        }
+
+        TextRange other = (TextRange) obj;
+        return (start == other.start) && (end == other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start + end;
+    }
+
+    @Override
+    public String toString() {
+        return "TextRange [start=" + start + ", end=" + end + "]";
+    }
+}
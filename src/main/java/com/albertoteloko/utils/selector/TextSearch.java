@@ -0,0 +1,107 @@
+package com.albertoteloko.utils.selector;
+
+/**
+ * This class search strings inside char sequences without copying them.
+ */
+final class TextSearch {
+
+    private TextSearch() {
+    }
+
+    /**
+     * Find the first occurrence of a string inside a region of a char sequence.
+     *
+     * @param text       The text where search.
+     * @param string     The string to find.
+     * @param from       The first position where the occurrence can start.
+     * @param to         The position where the occurrence must be ended.
+     * @param ignoreCase True to compare the chars ignoring the case.
+     * @return The position of the occurrence, -1 if there isn't any.
+     */
+    static int indexOf(CharSequence text, String string, int from, int to, boolean ignoreCase) {
+        int length = string.length();
+        int last = to - length;
+
+        if (from < 0) {
+            from = 0;
+        }
+        if (length == 0) {
+            return (from <= to) ? from : -1;
+        }
+
+        char first = string.charAt(0);
+        char firstUpper = Character.toUpperCase(first);
+        char firstLower = Character.toLowerCase(first);
+        boolean firstAscii = first < 0x80;
+
+        for (int i = from; i <= last; i++) {
+            char c = text.charAt(i);
+
+            if ((c == first) || (ignoreCase && matchesIgnoreCase(c, first, firstUpper, firstLower, firstAscii))) {
+                if (regionMatches(text, i + 1, string, 1, length - 1, ignoreCase)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check if a region of a char sequence is equals to a region of other one.
+     *
+     * @param text         The text to compare.
+     * @param offset       The start position in the text.
+     * @param string       The other text to compare.
+     * @param stringOffset The start position in the other text.
+     * @param length       The number of chars to compare.
+     * @param ignoreCase   True to compare the chars ignoring the case.
+     * @return True if both regions are equals, False if aren't.
+     */
+    static boolean regionMatches(CharSequence text, int offset, CharSequence string, int stringOffset, int length, boolean ignoreCase) {
+        for (int i = 0; i < length; i++) {
+            char c1 = text.charAt(offset + i);
+            char c2 = string.charAt(stringOffset + i);
+
+            if ((c1 != c2) && !(ignoreCase && equalsIgnoreCase(c1, c2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare one char with the first char of a string ignoring the case. When the first char is ASCII, only its
+     * upper and lower variants and the non ASCII chars can match, so the rest are discarded without case mapping.
+     *
+     * @param c          The char to compare.
+     * @param first      The first char.
+     * @param firstUpper The upper case of the first char.
+     * @param firstLower The lower case of the first char.
+     * @param firstAscii True if the first char is ASCII.
+     * @return True if both chars are equals ignoring the case.
+     */
+    private static boolean matchesIgnoreCase(char c, char first, char firstUpper, char firstLower, boolean firstAscii) {
+        if ((c == firstUpper) || (c == firstLower)) {
+            return true;
+        }
+        return ((!firstAscii) || (c >= 0x80)) && equalsIgnoreCase(c, first);
+    }
+
+    /**
+     * Compare two chars ignoring the case, using the same rules than {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param c1 The first char.
+     * @param c2 The second char.
+     * @return True if both chars are equals ignoring the case.
+     */
+    static boolean equalsIgnoreCase(char c1, char c2) {
+        if (c1 == c2) {
+            return true;
+        }
+
+        char u1 = Character.toUpperCase(c1);
+        char u2 = Character.toUpperCase(c2);
+
+        return (u1 == u2) || (Character.toLowerCase(u1) == Character.toLowerCase(u2));
+    }
+}
@@ -0,0 +1,93 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.CheckUtils;
+
+/**
+ * A char sequence that shows a region of other char sequence without copying it.
+ * <p>
+ * The view reads the chars from the backing text each time, so it's only valid while that region is not modified.
+ * The hash code is the same than the one of the String with the same chars, and two views are equals if they have
+ * the same chars. The text is only copied when {@link #toString()} is called.
+ */
+public final class TextView implements CharSequence {
+    private final CharSequence text;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructor.
+     *
+     * @param text  The backing text.
+     * @param start The region start.
+     * @param end   The region end.
+     */
+    public TextView(CharSequence text, int start, int end) {
+        CheckUtils.checkNull("text", text);
+        CheckUtils.checkInt("start", start, 0, text.length());
+        CheckUtils.checkInt("end", end, "start", start, "length", text.length());
+
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if ((index < 0) || (index >= end - start)) {
+            throw new StringIndexOutOfBoundsException(index);
+        }
+        return text.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if ((start < 0) || (end > length()) || (start > end)) {
+            throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+        }
+        return new TextView(text, this.start + start, this.start + end);
+    }
+
+    /**
+     * Check if this view has the same chars than other char sequence.
+     *
+     * @param other The other char sequence.
+     * @return True if both have the same chars, False if haven't.
+     */
+    public boolean contentEquals(CharSequence other) {
+        CheckUtils.checkNull("other", other);
+
+        int length = length();
+        if (other.length() != length) {
+            return false;
+        }
+        return TextSearch.regionMatches(other, 0, text, start, length, false);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return (obj instanceof TextView) && (contentEquals((TextView) obj));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return text.subSequence(start, end).toString();
+    }
+}
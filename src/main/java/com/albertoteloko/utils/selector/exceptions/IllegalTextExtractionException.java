@@ -31,6 +31,19 @@ public class IllegalTextExtractionException extends RuntimeException {
 		CheckUtils.checkString("message", message);
 	}
 
+	/**
+	 * Constructs an IllegalTextExtractionException with the specified detail message, filling the
+	 * stack trace and keeping the suppressed exceptions only if the stack trace is writable. Without it the
+	 * exception is much cheaper to create.
+	 * 
+	 * @param message the detail message.
+	 * @param writableStackTrace whether or not the stack trace should be writable.
+	 */
+	public IllegalTextExtractionException(String message, boolean writableStackTrace) {
+		super(message, null, writableStackTrace, writableStackTrace);
+		CheckUtils.checkString("message", message);
+	}
+
 	/**
 	 * Constructs a new exception with the specified cause and a detail message of (cause==null ? null :
 	 * cause.toString()) (which typically contains the class and detail message of cause). This constructor is
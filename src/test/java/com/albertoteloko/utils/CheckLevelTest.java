@@ -0,0 +1,117 @@
+package com.albertoteloko.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CheckLevelTest {
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(CheckLevel.PROPERTY);
+    }
+
+    @Test
+    public void fromSystemPropertyReadsTheLevel() {
+        assertEquals(CheckLevel.ALWAYS, CheckLevel.fromSystemProperty());
+
+        System.setProperty(CheckLevel.PROPERTY, "ALWAYS");
+        assertEquals(CheckLevel.ALWAYS, CheckLevel.fromSystemProperty());
+
+        System.setProperty(CheckLevel.PROPERTY, " debug ");
+        assertEquals(CheckLevel.DEBUG, CheckLevel.fromSystemProperty());
+
+        System.setProperty(CheckLevel.PROPERTY, "Off");
+        assertEquals(CheckLevel.OFF, CheckLevel.fromSystemProperty());
+
+        System.setProperty(CheckLevel.PROPERTY, "NEVER");
+        assertEquals(CheckLevel.ALWAYS, CheckLevel.fromSystemProperty());
+
+        System.setProperty(CheckLevel.PROPERTY, "");
+        assertEquals(CheckLevel.ALWAYS, CheckLevel.fromSystemProperty());
+    }
+
+    @Test
+    public void isEnabledDependsOnTheLevel() {
+        assertTrue(CheckLevel.ALWAYS.isEnabled());
+        assertEquals(CheckUtils.class.desiredAssertionStatus(), CheckLevel.DEBUG.isEnabled());
+        assertFalse(CheckLevel.OFF.isEnabled());
+    }
+
+    @Test
+    public void optionalChecksAreDoneByDefault() {
+        assertEquals(CheckLevel.ALWAYS, CheckUtils.getLevel());
+        assertTrue(CheckUtils.isOptionalCheckEnabled());
+
+        try {
+            CheckUtils.optionalCheckNull("value", null);
+            fail("The null value must be rejected");
+        } catch (NullPointerException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void onlyTheOptionalChecksAreSkippedWithOff() throws Exception {
+        System.setProperty(CheckLevel.PROPERTY, "OFF");
+        URL classes = CheckUtils.class.getProtectionDomain().getCodeSource().getLocation();
+
+        // A new loader without parent loads CheckUtils again, so it reads the level again
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null)) {
+            Class<?> checks = loader.loadClass(CheckUtils.class.getName());
+
+            assertEquals("OFF", String.valueOf(invoke(checks, "getLevel", new Class<?>[0])));
+            assertEquals(Boolean.FALSE, invoke(checks, "isOptionalCheckEnabled", new Class<?>[0]));
+            assertNull(invoke(checks, "optionalCheckNull", new Class<?>[]{String.class, Object.class}, "value", null));
+
+            assertThrows(NullPointerException.class, checks, "checkNull", new Class<?>[]{String.class, Object.class}, "value", null);
+            assertThrows(IllegalArgumentException.class, checks, "checkString", new Class<?>[]{String.class, String.class}, "value", "");
+            assertThrows(IllegalArgumentException.class, checks, "checkInt", new Class<?>[]{String.class, int.class, int.class, int.class}, "value", 5, 0, 4);
+            assertThrows(IllegalArgumentException.class, checks, "checkInts", new Class<?>[]{String.class, int[].class, int.class, int.class}, "values", new int[]{1, 7}, 0, 4);
+
+            Class<?> selectorClass = loader.loadClass("com.albertoteloko.utils.selector.Selector");
+            Object selector = selectorClass.getConstructor(String.class).newInstance("<a>b</a>");
+            Class<?> optionsClass = loader.loadClass("com.albertoteloko.utils.selector.SelectorOptions");
+            Object noOptions = Array.newInstance(optionsClass, 0);
+            Method selectText = selectorClass.getMethod("selectText", String.class, String.class, noOptions.getClass());
+
+            try {
+                selectText.invoke(selector, null, "</a>", noOptions);
+                fail("The null startString must be rejected");
+            } catch (InvocationTargetException e) {
+                assertEquals(NullPointerException.class, e.getCause().getClass());
+            }
+        }
+    }
+
+    private static Object invoke(Class<?> type, String name, Class<?>[] parameters, Object... args) throws Exception {
+        try {
+            return type.getMethod(name, parameters).invoke(null, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void assertThrows(Class<? extends Exception> expected, Class<?> type, String name, Class<?>[] parameters, Object... args) throws Exception {
+        try {
+            invoke(type, name, parameters, args);
+            fail(name + " must throw " + expected.getSimpleName());
+        } catch (Exception e) {
+            assertEquals(expected, e.getClass());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CheckUtilsTest {
+    private static final int ARRAYS = 300;
+
+    @Test
+    public void checkIntsMatchesTheScalarCheck() {
+        Random random = new Random(1);
+        int[][] intervals = {{0, 100}, {-5, 5}, {Integer.MIN_VALUE, Integer.MAX_VALUE}, {Integer.MIN_VALUE, 0},
+                {0, Integer.MAX_VALUE}, {7, 7}};
+
+        for (int i = 0; i < ARRAYS; i++) {
+            int[] interval = intervals[random.nextInt(intervals.length)];
+            int[] values = new int[random.nextInt(3000)];
+            for (int j = 0; j < values.length; j++) {
+                long width = (long) interval[1] - interval[0];
+                values[j] = (random.nextInt(500) == 0) ? random.nextInt() >> random.nextInt(32) : (int) (interval[0] + (long) (random.nextDouble() * width));
+            }
+            int from = random.nextInt(values.length + 1);
+            int to = from + random.nextInt(values.length - from + 1);
+
+            String expected = null;
+            for (int j = from; (j < to) && (expected == null); j++) {
+                try {
+                    CheckUtils.checkInt("values", values[j], interval[0], interval[1]);
+                } catch (IllegalArgumentException e) {
+                    expected = element(j, values[j]);
+                }
+            }
+
+            assertOffending(expected, checkInts(values, from, to, interval[0], interval[1]));
+            if ((from == 0) && (to == values.length)) {
+                assertOffending(expected, checkInts(values, -1, -1, interval[0], interval[1]));
+            }
+        }
+    }
+
+    @Test
+    public void checkLongsMatchesTheScalarCheck() {
+        Random random = new Random(2);
+        long[][] intervals = {{0, 100}, {-5, 5}, {Long.MIN_VALUE, Long.MAX_VALUE}, {Long.MIN_VALUE, 0},
+                {0, Long.MAX_VALUE}, {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+
+        for (int i = 0; i < ARRAYS; i++) {
+            long[] interval = intervals[random.nextInt(intervals.length)];
+            long[] values = new long[random.nextInt(3000)];
+            for (int j = 0; j < values.length; j++) {
+                double width = (double) interval[1] - interval[0];
+                values[j] = (random.nextInt(500) == 0) ? random.nextLong() >> random.nextInt(64) : interval[0] + (long) (random.nextDouble() * width);
+            }
+            int from = random.nextInt(values.length + 1);
+            int to = from + random.nextInt(values.length - from + 1);
+
+            String expected = null;
+            for (int j = from; (j < to) && (expected == null); j++) {
+                try {
+                    CheckUtils.checkLong("values", values[j], interval[0], interval[1]);
+                } catch (IllegalArgumentException e) {
+                    expected = element(j, values[j]);
+                }
+            }
+
+            assertOffending(expected, checkLongs(values, from, to, interval[0], interval[1]));
+            if ((from == 0) && (to == values.length)) {
+                assertOffending(expected, checkLongs(values, -1, -1, interval[0], interval[1]));
+            }
+        }
+    }
+
+    @Test
+    public void checkDoublesMatchesTheScalarCheck() {
+        Random random = new Random(3);
+        double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MAX_VALUE,
+                -Double.MAX_VALUE, Double.MIN_VALUE, 1e300, -1e300};
+        double[][] intervals = {{0, 1}, {-5, 5}, {-Double.MAX_VALUE, Double.MAX_VALUE},
+                {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}, {0, 0}};
+
+        for (int i = 0; i < ARRAYS; i++) {
+            double[] interval = intervals[random.nextInt(intervals.length)];
+            double[] values = new double[random.nextInt(3000)];
+            for (int j = 0; j < values.length; j++) {
+                double width = interval[1] - interval[0];
+                if (random.nextInt(300) == 0) {
+                    values[j] = specials[random.nextInt(specials.length)];
+                } else {
+                    values[j] = (Double.isInfinite(width)) ? random.nextGaussian() * 1e10 : interval[0] + random.nextDouble() * width;
+                }
+            }
+            int from = random.nextInt(values.length + 1);
+            int to = from + random.nextInt(values.length - from + 1);
+
+            String expected = null;
+            for (int j = from; (j < to) && (expected == null); j++) {
+                try {
+                    CheckUtils.checkDouble("values", values[j], interval[0], interval[1]);
+                } catch (IllegalArgumentException e) {
+                    expected = element(j, values[j]);
+                }
+            }
+
+            assertOffending(expected, checkDoubles(values, from, to, interval[0], interval[1]));
+            if ((from == 0) && (to == values.length)) {
+                assertOffending(expected, checkDoubles(values, -1, -1, interval[0], interval[1]));
+            }
+        }
+    }
+
+    @Test
+    public void checkDoublesAcceptsNaNLikeTheScalarCheck() {
+        double[] values = new double[2048];
+        values[1500] = Double.NaN;
+
+        CheckUtils.checkDouble("value", Double.NaN, 0, 1);
+        CheckUtils.checkDoubles("values", values, 0, 1);
+        CheckUtils.checkDoubles("values", values, 1024, 2048, 0, 1);
+    }
+
+    @Test
+    public void bulkChecksRejectTheSlicesOutOfTheArray() {
+        int[] ints = new int[10];
+        long[] longs = new long[10];
+        double[] doubles = new double[10];
+        int[][] slices = {{-1, 5}, {0, 11}, {6, 5}, {11, 11}};
+
+        for (int[] slice : slices) {
+            assertEquals(IllegalArgumentException.class, checkInts(ints, slice[0], slice[1], 0, 1).getClass());
+            assertEquals(IllegalArgumentException.class, checkLongs(longs, slice[0], slice[1], 0, 1).getClass());
+            assertEquals(IllegalArgumentException.class, checkDoubles(doubles, slice[0], slice[1], 0, 1).getClass());
+        }
+
+        assertEquals(IllegalArgumentException.class, checkInts(ints, 0, 10, 1, 0).getClass());
+        assertEquals(IllegalArgumentException.class, checkLongs(longs, 0, 10, 1, 0).getClass());
+        assertEquals(IllegalArgumentException.class, checkDoubles(doubles, 0, 10, 1, 0).getClass());
+        assertEquals(NullPointerException.class, checkInts(null, -1, -1, 0, 1).getClass());
+        assertEquals(NullPointerException.class, checkLongs(null, 0, 0, 0, 1).getClass());
+        assertEquals(NullPointerException.class, checkDoubles(null, -1, -1, 0, 1).getClass());
+
+        ints[9] = 5;
+        assertNull(checkInts(ints, 0, 9, 0, 1));
+        assertOffending(element(9, 5), checkInts(ints, 0, 10, 0, 1));
+    }
+
+    @Test
+    public void elementChecksGiveTheFirstOffendingIndex() {
+        Random random = new Random(4);
+
+        for (int i = 0; i < ARRAYS; i++) {
+            List<String> values = new ArrayList<String>();
+            for (int j = random.nextInt(50); j > 0; j--) {
+                int kind = random.nextInt(20);
+                values.add((kind == 0) ? null : (kind == 1) ? "" : "v" + j);
+            }
+            int firstNull = values.indexOf(null);
+            int firstEmpty = values.indexOf("");
+            int first = (firstNull < 0) ? firstEmpty : (firstEmpty < 0) ? firstNull : Math.min(firstNull, firstEmpty);
+            Class<?> expected = (first < 0) ? null : (first == firstNull) ? NullPointerException.class : IllegalArgumentException.class;
+
+            assertFirst(expected, first, checkStrings(values.toArray(new String[values.size()])));
+            assertFirst(expected, first, checkStrings(values));
+            assertFirst((firstNull < 0) ? null : NullPointerException.class, firstNull, checkNotNulls(values));
+        }
+
+        assertEquals(NullPointerException.class, checkStrings((String[]) null).getClass());
+        assertEquals(NullPointerException.class, checkStrings((Collection<String>) null).getClass());
+        assertEquals(NullPointerException.class, checkNotNulls(null).getClass());
+        assertNull(checkNotNulls(Collections.emptyList()));
+    }
+
+    private static String element(int index, Object value) {
+        return "values[" + index + "] (" + value + ")";
+    }
+
+    private static void assertOffending(String expected, RuntimeException exception) {
+        if (expected == null) {
+            assertNull(exception);
+        } else {
+            assertEquals(IllegalArgumentException.class, exception.getClass());
+            assertTrue(expected + " in " + exception.getMessage(), exception.getMessage().contains(expected));
+        }
+    }
+
+    private static void assertFirst(Class<?> expected, int index, RuntimeException exception) {
+        if (expected == null) {
+            assertNull(exception);
+        } else {
+            assertEquals(expected, exception.getClass());
+            assertTrue(index + " in " + exception.getMessage(), exception.getMessage().contains("values[" + index + "]"));
+        }
+    }
+
+    // The checks return the exception thrown, the slice -1, -1 checks the whole array
+
+    private static RuntimeException checkInts(int[] values, int from, int to, int min, int max) {
+        try {
+            if (from < 0 && to < 0) {
+                CheckUtils.checkInts("values", values, min, max);
+            } else {
+                CheckUtils.checkInts("values", values, from, to, min, max);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException checkLongs(long[] values, int from, int to, long min, long max) {
+        try {
+            if (from < 0 && to < 0) {
+                CheckUtils.checkLongs("values", values, min, max);
+            } else {
+                CheckUtils.checkLongs("values", values, from, to, min, max);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException checkDoubles(double[] values, int from, int to, double min, double max) {
+        try {
+            if (from < 0 && to < 0) {
+                CheckUtils.checkDoubles("values", values, min, max);
+            } else {
+                CheckUtils.checkDoubles("values", values, from, to, min, max);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException checkStrings(String[] values) {
+        try {
+            CheckUtils.checkStrings("values", values);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException checkStrings(Collection<String> values) {
+        try {
+            CheckUtils.checkStrings("values", values);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static RuntimeException checkNotNulls(Collection<?> values) {
+        try {
+            CheckUtils.checkNotNulls("values", values);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
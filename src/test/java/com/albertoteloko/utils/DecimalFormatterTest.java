@@ -0,0 +1,81 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DecimalFormatterTest {
+    private static final String[] PATTERNS = {"#", "#.#", "#.##", "#.###"};
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY, new Locale("ar", "EG")};
+
+    @Test
+    public void formatMatchesDecimalFormatOnTheSpecialValues() {
+        double[] values = {0, -0.0, 1, -1, 0.5, 1.5, 2.5, -2.5, 0.05, 0.15, 0.25, 0.0005, 0.0015, 0.0025, -0.0005,
+                0.125, 0.375, 1.0005, 0.9995, 0.00049, 9.9995, 1e-9, Double.MIN_VALUE, 0x1p40 - 1, 0x1p40, 0x1p40 + 0.5,
+                1e15 + 0.5, 1e17, 1e22, 1.2345678e30, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, 123456.789, 0.1 + 0.2, 1.005, 2.675};
+
+        for (Locale locale : LOCALES) {
+            for (int fractionDigits = 0; fractionDigits < PATTERNS.length; fractionDigits++) {
+                for (double value : values) {
+                    assertFormat(value, fractionDigits, locale);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void formatMatchesDecimalFormatOnRandomValues() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100000; i++) {
+            double value;
+            switch (i % 4) {
+                case 0:
+                    value = random.nextDouble() * 10;
+                    break;
+                case 1:
+                    // The ties and the values next to them
+                    value = random.nextInt(100000) / 2000.0 + (random.nextInt(3) - 1) * Math.ulp(1.0);
+                    break;
+                case 2:
+                    value = Math.scalb(random.nextDouble(), random.nextInt(120) - 60);
+                    break;
+                default:
+                    value = Double.longBitsToDouble(random.nextLong());
+                    break;
+            }
+
+            assertFormat((random.nextBoolean()) ? value : -value, i % PATTERNS.length, Locale.US);
+        }
+    }
+
+    @Test
+    public void formatAppendsToTheOutput() throws IOException {
+        DecimalFormatter formatter = new DecimalFormatter(2, Locale.US);
+        StringBuilder builder = new StringBuilder("t=");
+
+        formatter.format(1.005, builder);
+        formatter.format(3.14159, (Appendable) builder.append(' '));
+
+        assertEquals("t=1 3.14", builder.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsTooManyFractionDigits() {
+        new DecimalFormatter(4);
+    }
+
+    private static void assertFormat(double value, int fractionDigits, Locale locale) {
+        DecimalFormat format = new DecimalFormat(PATTERNS[fractionDigits], DecimalFormatSymbols.getInstance(locale));
+        DecimalFormatter formatter = new DecimalFormatter(fractionDigits, locale);
+
+        assertEquals(Double.toString(value), format.format(value), formatter.format(value));
+    }
+}
@@ -0,0 +1,114 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreExactForTheSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 32; i++) {
+            histogram.record(i);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(32, snapshot.getCount());
+        assertEquals(16, snapshot.getP50());
+        assertEquals(29, snapshot.getP90());
+        assertEquals(32, snapshot.getPercentile(100));
+        assertEquals(1, snapshot.getPercentile(0));
+        assertEquals(16.5, snapshot.getMean(), 0);
+    }
+
+    @Test
+    public void percentilesAreInsideTheBucketOfTheValue() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            histogram.record(Long.MAX_VALUE);
+
+            long p = histogram.getSnapshot().getPercentile(33);
+
+            assertTrue(value + " " + p, p >= value);
+            assertTrue(value + " " + p, p - value <= value / 32);
+        }
+    }
+
+    @Test
+    public void percentilesNeverGoOverTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(1001);
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(1001, snapshot.getMax());
+        assertEquals(1001, snapshot.getP999());
+    }
+
+    @Test
+    public void recordClampsTheNegativeDurations() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(2, TimeUnit.MICROSECONDS);
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(0, snapshot.getPercentile(50));
+        assertEquals(2000, snapshot.getMax());
+    }
+
+    @Test
+    public void getSnapshotAndResetStartsANewInterval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+
+        assertEquals(1, histogram.getSnapshotAndReset().getCount());
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getP99());
+    }
+
+    @Test
+    public void snapshotsTakenWhileRecordingKeepTheMaxInsideTheBuckets() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Thread recorder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random(1);
+                while (!Thread.currentThread().isInterrupted()) {
+                    histogram.record(random.nextInt(1 << 20));
+                }
+            }
+        });
+        recorder.start();
+
+        try {
+            for (int i = 0; i < 1000; i++) {
+                LatencyHistogram.Snapshot snapshot = histogram.getSnapshotAndReset();
+
+                if (snapshot.getCount() > 0) {
+                    assertEquals(snapshot.getMax(), snapshot.getPercentile(100));
+                } else {
+                    assertEquals(0, snapshot.getMax());
+                }
+            }
+        } finally {
+            recorder.interrupt();
+            recorder.join();
+        }
+    }
+}
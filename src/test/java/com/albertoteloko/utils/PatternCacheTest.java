@@ -0,0 +1,83 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PatternCacheTest {
+
+    @Test
+    public void getReturnsTheCachedPattern() {
+        PatternCache cache = new PatternCache(4);
+
+        Pattern pattern = cache.get("a+");
+
+        assertSame(pattern, cache.get("a+"));
+        assertEquals(Pattern.CASE_INSENSITIVE, cache.get("a+", Pattern.CASE_INSENSITIVE).flags());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void getKeepsTheSizeBounded() {
+        PatternCache cache = new PatternCache(8);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("p" + i);
+        }
+
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    public void getWorksFromManyThreads() throws Exception {
+        final PatternCache cache = new PatternCache(16);
+        final AtomicBoolean failed = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+            final Random random = new Random(i);
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 20000; j++) {
+                        String expression = "p" + random.nextInt(64);
+                        if (!expression.equals(cache.get(expression).pattern())) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(failed.get());
+        assertTrue(cache.size() <= cache.getMaxSize() + threads.length);
+    }
+
+    @Test
+    public void getKeepsTheHotPatterns() {
+        PatternCache cache = new PatternCache(8);
+        Pattern[] hot = new Pattern[4];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = cache.get("hot" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.get("cold" + i);
+
+            for (int j = 0; j < hot.length; j++) {
+                assertSame(hot[j], cache.get("hot" + j));
+            }
+        }
+    }
+}
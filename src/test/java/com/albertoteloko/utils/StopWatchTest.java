@@ -0,0 +1,114 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StopWatchTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void splitNeedsTheWatchStarted() {
+        new StopWatch().split();
+    }
+
+    @Test
+    public void suspendFreezesTheElapseTime() throws InterruptedException {
+        StopWatch watch = new StopWatch().start().suspend();
+        long elapsed = watch.split();
+
+        Thread.sleep(20);
+
+        assertTrue(watch.isSuspended());
+        assertEquals(elapsed, watch.split());
+        assertEquals(elapsed, watch.getElapseNanoTime());
+    }
+
+    @Test
+    public void suspendedTimeIsNotCounted() throws InterruptedException {
+        StopWatch watch = new StopWatch().start().suspend();
+        long before = watch.split();
+
+        Thread.sleep(50);
+        watch.resume().suspend();
+
+        assertTrue(watch.split() - before < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resumeNeedsTheWatchSuspended() {
+        new StopWatch().start().resume();
+    }
+
+    @Test
+    public void lapsKeepTheirStatistics() throws InterruptedException {
+        StopWatch watch = new StopWatch().start();
+
+        Thread.sleep(2);
+        long first = watch.lap();
+        Thread.sleep(10);
+        long second = watch.lap();
+        watch.suspend();
+
+        assertEquals(2, watch.getLapCount());
+        assertEquals(second, watch.getLastLapTime(TimeUnit.NANOSECONDS), 0);
+        assertEquals(Math.min(first, second), watch.getMinLapTime(TimeUnit.NANOSECONDS), 0);
+        assertEquals(Math.max(first, second), watch.getMaxLapTime(TimeUnit.NANOSECONDS), 0);
+        assertEquals((first + second) / 2.0, watch.getMeanLapTime(TimeUnit.NANOSECONDS), 0.5);
+        assertTrue(first + second <= watch.split());
+
+        watch.start();
+        assertEquals(0, watch.getLapCount());
+        assertFalse(watch.isSuspended());
+    }
+
+    @Test
+    public void formattedTimesUseTheIntervalInfo() {
+        StopWatch watch = new StopWatch().start().suspend();
+        long elapsed = watch.split();
+        String interval = (elapsed < TimeUnit.MILLISECONDS.toNanos(1))
+                ? TimeUtils.getIntervalInfo(elapsed, TimeUnit.NANOSECONDS)
+                : TimeUtils.getIntervalInfo(TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.MILLISECONDS);
+
+        assertEquals(interval, watch.getDividedElapseTime());
+        assertEquals("in " + interval, watch.toString());
+        assertEquals(DecimalFormatter.DEFAULT.format(watch.getElapseTime(TimeUnit.MICROSECONDS)), watch.getElapseTimeFormatted(TimeUnit.MICROSECONDS));
+        assertEquals(new DecimalFormatter(1).format(watch.getElapseTime(TimeUnit.MICROSECONDS)),
+                watch.formatElapseTime(TimeUnit.MICROSECONDS, new DecimalFormatter(1)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void getElapseTimeFormattedRejectsTheNullFormatter() {
+        new StopWatch().start().getElapseTimeFormatted(TimeUnit.SECONDS, null);
+    }
+
+    @Test
+    public void printElapseTimeLogsTheFormattedTime() {
+        StopWatch watch = new StopWatch().start().suspend();
+        final List<String> calls = new ArrayList<String>();
+        Logger log = (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class<?>[]{Logger.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                calls.add(method.getName() + " " + Arrays.deepToString(args));
+                return null;
+            }
+        });
+
+        watch.printElapseTime("Parse", log, LogLevel.INFO);
+        watch.printElapseTime("Parse", log, LogLevel.WARN, TimeUnit.MICROSECONDS);
+
+        String micros = DecimalFormatter.DEFAULT.format(watch.getElapseTime(TimeUnit.MICROSECONDS));
+        assertEquals(Arrays.asList("info [{} in {}, [Parse, " + watch.getDividedElapseTime() + "]]",
+                "warn [{} in {}, [Parse, " + micros + " microseconds]]"), calls);
+    }
+}
@@ -0,0 +1,89 @@
+package com.albertoteloko.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeUtilsTest {
+
+    @Test
+    public void getIntervalInfoDividesTheIntervalIntoUnits() {
+        assertEquals("1 day, 1 hour, 1 minute, 1 second", TimeUtils.getIntervalInfo(90061, TimeUnit.SECONDS));
+        assertEquals("2 seconds, 5 milliseconds", TimeUtils.getIntervalInfo(2005, TimeUnit.MILLISECONDS));
+        assertEquals("0 nanoseconds", TimeUtils.getIntervalInfo(0, TimeUnit.NANOSECONDS));
+        assertEquals("-5 minutes", TimeUtils.getIntervalInfo(-5, TimeUnit.MINUTES));
+    }
+
+    @Test
+    public void getIntervalInfoMatchesTheOriginalAlgorithm() throws IOException {
+        Random random = new Random(1);
+        long[] values = {0, 1, -1, 999, 1000, 1001, 59, 60, 61, 3600, 86400, Long.MAX_VALUE, Long.MIN_VALUE};
+
+        for (TimeUnit unit : TimeUnit.values()) {
+            for (long value : values) {
+                assertIntervalInfo(value, unit);
+            }
+            for (int i = 0; i < 2000; i++) {
+                assertIntervalInfo(random.nextLong() >> random.nextInt(64), unit);
+            }
+        }
+    }
+
+    private static void assertIntervalInfo(long value, TimeUnit unit) throws IOException {
+        String expected = originalIntervalInfo(value, unit);
+        StringWriter writer = new StringWriter();
+        TimeUtils.appendIntervalInfo(value, unit, writer);
+
+        assertEquals(value + " " + unit, expected, TimeUtils.getIntervalInfo(value, unit));
+        assertEquals(value + " " + unit, expected, writer.toString());
+    }
+
+    /**
+     * The algorithm of getIntervalInfo before it was rewritten to append the units without allocating memory.
+     */
+    private static String originalIntervalInfo(long intervalDuration, TimeUnit unit) {
+        TimeUnit[] timeUnits = TimeUnit.values();
+        long[] values = new long[timeUnits.length];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i == unit.ordinal()) ? intervalDuration : 0;
+        }
+
+        for (int i = 0; i < timeUnits.length - 1; i++) {
+            long value = values[i];
+            long nexUnitValue = timeUnits[i].convert(1, timeUnits[i + 1]);
+
+            values[i] = value % nexUnitValue;
+            values[i + 1] = values[i + 1] + value / nexUnitValue;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = (timeUnits.length - 1); i >= 0; i--) {
+            if (values[i] > 0) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(originalValueString(values[i], timeUnits[i]));
+            }
+        }
+
+        if (builder.length() == 0) {
+            builder.append(originalValueString(intervalDuration, unit));
+        }
+        return builder.toString();
+    }
+
+    private static String originalValueString(long value, TimeUnit unit) {
+        String result = value + " " + unit.toString().toLowerCase();
+
+        if (value == 1) {
+            result = result.substring(0, result.length() - 1);
+        }
+        return result;
+    }
+}
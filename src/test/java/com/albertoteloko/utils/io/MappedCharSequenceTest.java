@@ -0,0 +1,86 @@
+package com.albertoteloko.utils.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MappedCharSequenceTest {
+    // The chars of each block decoded at once
+    private static final int BLOCK_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void surrogatePairsSplitByTheBlocksAreRead() throws IOException {
+        String pair = new String(Character.toChars(0x1F600));
+
+        for (int offset = BLOCK_SIZE - 3; offset <= BLOCK_SIZE + 1; offset++) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < offset; i++) {
+                builder.append('a');
+            }
+            builder.append(pair).append("é").append(pair);
+            while (builder.length() < 3 * BLOCK_SIZE) {
+                builder.append(pair);
+            }
+
+            assertSameText(builder.toString(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void randomTextsAreReadAsTheDecodedString() throws IOException {
+        Random random = new Random(1);
+        String[] parts = {"a", "b", "é", "€", new String(Character.toChars(0x1F600)), "\n"};
+
+        for (int i = 0; i < 20; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(5 * BLOCK_SIZE);
+            while (builder.length() < length) {
+                // Long runs of the same part make blocks of only ASCII chars and blocks of only pairs
+                String part = parts[random.nextInt(parts.length)];
+                for (int j = random.nextInt(300); j >= 0; j--) {
+                    builder.append(part);
+                }
+            }
+
+            assertSameText(builder.toString(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void singleByteCharsetsAreRead() throws IOException {
+        assertSameText("plain ascii text\n", StandardCharsets.US_ASCII);
+        assertSameText("café ÿ", StandardCharsets.ISO_8859_1);
+    }
+
+    private void assertSameText(String text, Charset charset) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), text.getBytes(charset));
+
+        MappedCharSequence sequence = new MappedCharSequence(file, charset);
+
+        assertEquals(text.length(), sequence.length());
+        for (int i = 0; i < text.length(); i++) {
+            assertEquals("char " + i, text.charAt(i), sequence.charAt(i));
+        }
+        for (int i = text.length() - 1; i >= 0; i -= 7) {
+            assertEquals("char " + i, text.charAt(i), sequence.charAt(i));
+        }
+        for (int start = 0; start < text.length(); start += 331) {
+            int end = Math.min(text.length(), start + 1500);
+            assertEquals(text.substring(start, end), sequence.subSequence(start, end).toString());
+        }
+        assertEquals(text, sequence.toString());
+    }
+}
@@ -0,0 +1,76 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteSearchTest {
+
+    @Test
+    public void indexOfFindsTheByteInEveryLanePosition() {
+        for (int length = 0; length < 40; length++) {
+            for (int position = 0; position < length; position++) {
+                byte[] bytes = new byte[length];
+                bytes[position] = 'x';
+                ByteBuffer buffer = wrap(bytes);
+
+                assertEquals(position, ByteSearch.indexOf(buffer, (byte) 'x', (byte) 'x', 0, length));
+                assertEquals(-1, ByteSearch.indexOf(buffer, (byte) 'x', (byte) 'x', position + 1, length));
+                assertEquals(-1, ByteSearch.indexOf(buffer, (byte) 'x', (byte) 'x', 0, position));
+            }
+        }
+    }
+
+    @Test
+    public void indexOfIgnoresTheFalseMarksAfterAZeroByte() {
+        // The borrow of a zero byte can mark the next byte when it's one more than the searched byte
+        byte[] bytes = {'a', 'b', 'a', 'b', 'x', 'b', 'b', 'b', 'a', 'b'};
+        ByteBuffer buffer = wrap(bytes);
+
+        assertEquals(1, ByteSearch.indexOf(buffer, (byte) 'b', (byte) 'b', 0, bytes.length));
+        assertEquals(4, ByteSearch.indexOf(buffer, (byte) 'x', (byte) 'x', 0, bytes.length));
+        assertEquals(0, ByteSearch.indexOf(buffer, (byte) 'a', (byte) 'a', 0, bytes.length));
+    }
+
+    @Test
+    public void indexOfFindsTheHighBytes() {
+        byte[] bytes = "aaaaaaaaaaaaé".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = wrap(bytes);
+
+        assertEquals(12, ByteSearch.indexOf(buffer, bytes[12], bytes[12], 0, bytes.length));
+        assertEquals(12, ByteSearch.indexOf(buffer, "é".getBytes(StandardCharsets.UTF_8), 0, bytes.length, false));
+    }
+
+    @Test
+    public void indexOfMatchesTheStringSearch() {
+        Random random = new Random(1);
+        String[] strings = {"a", "ab", "ba", "abc", "cab", "aaaa", "C", "Ab"};
+
+        for (int i = 0; i < 200; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(80);
+            for (int j = 0; j < length; j++) {
+                builder.append("abcABC".charAt(random.nextInt(6)));
+            }
+            String text = builder.toString();
+            ByteBuffer buffer = wrap(text.getBytes(StandardCharsets.US_ASCII));
+            int from = (length > 0) ? random.nextInt(length) : 0;
+
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.US_ASCII);
+
+                assertEquals(text.indexOf(string, from), ByteSearch.indexOf(buffer, bytes, from, length, false));
+                assertEquals(text.toLowerCase().indexOf(string.toLowerCase(), from), ByteSearch.indexOf(buffer, bytes, from, length, true));
+            }
+        }
+    }
+
+    private static ByteBuffer wrap(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,73 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ByteSelectorTest {
+
+    @Test
+    public void extractTextSearchesTheEncodedDelimiters() {
+        ByteSelector selector = new ByteSelector("<a>uno</a><b>dós</b><a>tres</a>".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("uno", selector.extractText("<a>", "</a>"));
+        assertEquals("dós", selector.extractText("<b>", "</b>"));
+        assertEquals("tres", selector.extractText("<a>", "</a>"));
+        assertNull(selector.extractText("<a>", "</a>", SelectorOptions.OPTIONAL));
+    }
+
+    @Test
+    public void extractRangeCountsBytes() {
+        ByteSelector selector = new ByteSelector("é[x]".getBytes(StandardCharsets.UTF_8));
+
+        selector.selectText("[", "]");
+        TextRange range = selector.extractRange();
+
+        assertEquals(3, range.getStart());
+        assertEquals(4, range.getEnd());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectTextRejectsTheUnmappableDelimiters() {
+        ByteSelector selector = new ByteSelector("abc".getBytes(StandardCharsets.US_ASCII), StandardCharsets.US_ASCII);
+
+        selector.selectText("é", "c", SelectorOptions.OPTIONAL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectTextRejectsTheMalformedDelimiters() {
+        ByteSelector selector = new ByteSelector("abc".getBytes(StandardCharsets.UTF_8));
+
+        selector.selectText("\uD800", "c", SelectorOptions.OPTIONAL);
+    }
+
+    @Test(expected = IllegalTextSelectionException.class)
+    public void selectTextThrowsWhenNotFound() {
+        ByteSelector selector = new ByteSelector("abc".getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+
+        selector.selectText("a", "z");
+    }
+
+    @Test
+    public void selectTextThrowsWithoutStackTrace() {
+        ByteSelector selector = new ByteSelector("abc".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            selector.selectText("a", "z", SelectorOptions.NO_STACK_TRACE);
+            fail();
+        } catch (IllegalTextSelectionException e) {
+            assertEquals("End text: \"z\" not found.", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectTextRejectsRegex() {
+        new ByteSelector("abc".getBytes(StandardCharsets.UTF_8)).selectText("a", "c", SelectorOptions.REGEX);
+    }
+}
@@ -0,0 +1,138 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ChunkedTextTest {
+
+    @Test
+    public void appendKeepsTheSameTextThanAStringBuilder() {
+        Random random = new Random(1);
+        ChunkedText text = new ChunkedText(16);
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    String string = randomString(random, random.nextInt(40));
+                    text.append(string);
+                    expected.append(string);
+                    break;
+                case 1:
+                    StringBuilder builder = new StringBuilder(randomString(random, random.nextInt(40)));
+                    int start = random.nextInt(builder.length() + 1);
+                    int end = start + random.nextInt(builder.length() - start + 1);
+                    text.append(builder, start, end);
+                    expected.append(builder, start, end);
+                    break;
+                default:
+                    char c = (char) ('a' + random.nextInt(26));
+                    text.append(c);
+                    expected.append(c);
+                    break;
+            }
+        }
+
+        assertEquals(expected.length(), text.length());
+        assertEquals(expected.toString(), text.toString());
+        for (int i = 0; i < 1000; i++) {
+            int start = random.nextInt(expected.length() + 1);
+            int end = start + random.nextInt(expected.length() - start + 1);
+
+            assertEquals(expected.substring(start, end), text.subSequence(start, end).toString());
+            if (start < expected.length()) {
+                assertEquals(expected.charAt(start), text.charAt(start));
+            }
+        }
+    }
+
+    @Test
+    public void releaseDiscardsOnlyTheWholeChunks() {
+        ChunkedText text = new ChunkedText(4);
+        text.append("0123456789");
+
+        text.release(6);
+
+        assertEquals(4, text.getFirstRetained());
+        assertEquals(10, text.length());
+        assertEquals('4', text.charAt(4));
+        assertEquals("456789", text.retainedText());
+        assertOutOfBounds(text, 3);
+        try {
+            text.toString();
+            fail("The released text can't be returned");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        text.release(2);
+        assertEquals(4, text.getFirstRetained());
+
+        text.append("abcdefgh");
+        text.release(17);
+        assertEquals(16, text.getFirstRetained());
+        assertEquals("gh", text.subSequence(16, 18).toString());
+    }
+
+    @Test
+    public void appendKeepsWorkingAfterManyReleases() {
+        ChunkedText text = new ChunkedText(8);
+
+        for (int i = 0; i < 100000; i++) {
+            text.append("line ").append(Integer.toString(i)).append('\n');
+            text.release(Math.max(0, text.length() - 20));
+        }
+
+        assertEquals("99999\n", text.subSequence(text.length() - 6, text.length()).toString());
+    }
+
+    @Test
+    public void selectorParsesAChunkedText() {
+        ChunkedText text = new ChunkedText(4);
+        text.append("<a>one</a>").append("<a>two</a>");
+
+        Selector selector = new Selector(text);
+
+        assertEquals("one", selector.extractText("<a>", "</a>"));
+        assertEquals("two", selector.extractText("<a>", "</a>"));
+        assertEquals("<a>one</a><a>two</a>", selector.getMainString());
+
+        selector.append("<a>three</a>");
+
+        assertEquals("three", selector.extractText("<a>", "</a>"));
+        assertEquals(20, text.getFirstRetained());
+        assertEquals("<a>three</a>", text.retainedText());
+        try {
+            selector.getMainString();
+            fail("The released text can't be returned");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsTheChunkSizesThatArentPowersOfTwo() {
+        new ChunkedText(12);
+    }
+
+    private static void assertOutOfBounds(ChunkedText text, int index) {
+        try {
+            text.charAt(index);
+            fail();
+        } catch (StringIndexOutOfBoundsException e) {
+            // Expected
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,54 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DelimiterTest {
+
+    @Test
+    public void indexOfMatchesANaiveSearch() {
+        Random random = new Random(1);
+        // Chars with the same lower byte as the ASCII ones, and chars that only match ignoring the case after folding
+        String alphabet = "abAB k\u0141\u0161\u212A\u017FsS\u0130i\u0131I";
+
+        for (int i = 0; i < 20000; i++) {
+            String text = randomString(random, alphabet, random.nextInt(40));
+            String string = randomString(random, alphabet, random.nextInt(5));
+            boolean ignoreCase = random.nextBoolean();
+            int from = random.nextInt(text.length() + 2) - 1;
+            int to = Math.max(0, from) + random.nextInt(text.length() - Math.max(0, from) + 1);
+
+            assertEquals(text + " " + string + " " + ignoreCase + " " + from + " " + to,
+                    naiveIndexOf(text, string, from, to, ignoreCase), new Delimiter(string, ignoreCase).indexOf(text, from, to));
+        }
+    }
+
+    @Test
+    public void indexOfFindsTheEmptyDelimiterAtTheStart() {
+        Delimiter delimiter = new Delimiter("", false);
+
+        assertEquals(2, delimiter.indexOf("abc", 2, 3));
+        assertEquals(0, delimiter.indexOf("abc", -1, 3));
+        assertEquals(0, delimiter.length());
+    }
+
+    private static int naiveIndexOf(String text, String string, int from, int to, boolean ignoreCase) {
+        for (int i = Math.max(0, from); i + string.length() <= to; i++) {
+            if (text.regionMatches(ignoreCase, i, string, 0, string.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+}
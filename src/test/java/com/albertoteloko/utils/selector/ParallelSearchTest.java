@@ -0,0 +1,95 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelSearchTest {
+    // With 4 workers the chunks have the min size, so a text of some MB has many chunk boundaries
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final int LENGTH = 3 * 1024 * 1024 + 17;
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void findAllMatchesTheSequentialScanner() {
+        Random random = new Random(1);
+        String[][] delimiters = {{"ab", "ba"}, {"a", "a"}, {"aa", "aa"}, {"abc", "c"}, {"ca", "zz"}, {"zz", "b"}};
+
+        for (String[] pair : delimiters) {
+            String text = randomText(random, "abc", LENGTH, "zz", 5);
+
+            for (boolean includeDelimiters : new boolean[]{false, true}) {
+                assertFindAll(text, pair[0], pair[1], false, includeDelimiters, 0, text.length());
+                assertFindAll(text, pair[0], pair[1], true, includeDelimiters, 1000, text.length() - 1000);
+            }
+        }
+    }
+
+    @Test
+    public void findAllClosesStartsAcrossManyChunks() {
+        char[] chars = new char[LENGTH];
+        Arrays.fill(chars, 'x');
+        "<a".getChars(0, 2, chars, 10);
+        ">".getChars(0, 1, chars, LENGTH - 20);
+        "<b".getChars(0, 2, chars, LENGTH - 10);
+        String text = new String(chars);
+
+        int[] matches = ParallelSearch.findAll(POOL, text, new Delimiter("<", false), new Delimiter(">", false), false, 0, text.length());
+
+        assertArrayEquals(new int[]{11, LENGTH - 20}, matches);
+    }
+
+    @Test
+    public void indexOfFindsTheFirstOccurrenceOnChunkBoundaries() {
+        char[] chars = new char[LENGTH];
+        Arrays.fill(chars, 'x');
+        int position = 256 * 1024 - 2;
+        "needle".getChars(0, 6, chars, position);
+        "needle".getChars(0, 6, chars, LENGTH - 6);
+        String text = new String(chars);
+
+        assertEquals(position, ParallelSearch.indexOf(POOL, text, new Delimiter("needle", false), 0, text.length()));
+        assertEquals(LENGTH - 6, ParallelSearch.indexOf(POOL, text, new Delimiter("needle", false), position + 1, text.length()));
+        assertEquals(-1, ParallelSearch.indexOf(POOL, text, new Delimiter("needle", false), position + 1, text.length() - 1));
+    }
+
+    private static void assertFindAll(String text, String start, String end, boolean ignoreCase, boolean includeDelimiters, int from, int to) {
+        Delimiter startDelimiter = new Delimiter(start, ignoreCase);
+        Delimiter endDelimiter = new Delimiter(end, ignoreCase);
+
+        MatchScanner scanner = new MatchScanner(text, startDelimiter, endDelimiter, includeDelimiters, from, to);
+        int[] expected = new int[0];
+        int size = 0;
+        while (scanner.find()) {
+            if (size + 2 > expected.length) {
+                expected = Arrays.copyOf(expected, Math.max(16, expected.length * 2));
+            }
+            expected[size++] = scanner.getMatchStart();
+            expected[size++] = scanner.getMatchEnd();
+        }
+
+        int[] actual = ParallelSearch.findAll(POOL, text, startDelimiter, endDelimiter, includeDelimiters, from, to);
+        assertArrayEquals(start + " / " + end, Arrays.copyOf(expected, size), actual);
+    }
+
+    private static String randomText(Random random, String alphabet, int length, String rare, int rareCount) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        for (int i = 0; i < rareCount; i++) {
+            rare.getChars(0, rare.length(), chars, random.nextInt(length - rare.length()));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,167 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PatternAutomatonTest {
+    private static final String ALPHABET = "abABéÉσΣ";
+
+    @Test
+    public void automatonMatchesTheNaiveSearch() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 300; i++) {
+            List<String> strings = new ArrayList<String>();
+            int count = 1 + random.nextInt(6);
+            for (int j = 0; j < count; j++) {
+                strings.add(randomString(random, random.nextInt(4)));
+            }
+            String text = randomString(random, random.nextInt(200));
+
+            for (boolean ignoreCase : new boolean[]{false, true}) {
+                PatternAutomaton automaton = new PatternAutomaton(strings, ignoreCase);
+                int state = automaton.getInitialState();
+
+                for (int end = 1; end <= text.length(); end++) {
+                    state = automaton.next(state, text.charAt(end - 1));
+
+                    assertArrayEquals(strings + " " + text + " " + end, naiveMatches(strings, text, end, ignoreCase), automaton.getMatches(state));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void automatonKeepsTheLengths() {
+        PatternAutomaton automaton = new PatternAutomaton(Arrays.asList("he", "she", "", "hers"), false);
+
+        assertEquals(2, automaton.getLength(0));
+        assertEquals(3, automaton.getLength(1));
+        assertEquals(0, automaton.getLength(2));
+        assertEquals(4, automaton.getLength(3));
+    }
+
+    @Test
+    public void multiExtractionMatchesTheSelector() {
+        Random random = new Random(1);
+        String[][] fields = {{"<a>", "</a>"}, {"<b>", "</b>"}, {"<A>", "</a>"}, {"<a>", "<b>"}, {"</b>", ""}, {"", "<b>"}};
+
+        for (int i = 0; i < 300; i++) {
+            StringBuilder builder = new StringBuilder();
+            String[] parts = {"<a>", "</a>", "<b>", "</b>", "<A>", "x", "y"};
+            int length = 1 + random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                builder.append(parts[random.nextInt(parts.length)]);
+            }
+            String text = builder.toString();
+
+            MultiExtraction.Builder extractionBuilder = MultiExtraction.builder();
+            SelectorOptions[][] options = new SelectorOptions[fields.length][];
+            for (int j = 0; j < fields.length; j++) {
+                options[j] = randomOptions(random);
+                addField(extractionBuilder, fields[j][0], fields[j][1], options[j]);
+            }
+            ExtractionResult result = extractionBuilder.build().execute(text);
+
+            for (int j = 0; j < fields.length; j++) {
+                Selector selector = new Selector(text);
+                SelectorOptions[] selectorOptions = Arrays.copyOf(options[j], options[j].length + 2);
+                selectorOptions[options[j].length] = SelectorOptions.NO_MOVE;
+                selectorOptions[options[j].length + 1] = SelectorOptions.OPTIONAL;
+                String expected = extract(selector, fields[j][0], fields[j][1], selectorOptions);
+
+                if (expected == null) {
+                    assertNull(text + " " + j, (result.isFound(j)) ? result.getText(j) : null);
+                } else {
+                    assertEquals(text + " " + j, expected, result.getText(j));
+                }
+            }
+        }
+    }
+
+    private static SelectorOptions[] randomOptions(Random random) {
+        List<SelectorOptions> options = new ArrayList<SelectorOptions>();
+        options.add(SelectorOptions.OPTIONAL);
+        if (random.nextBoolean()) {
+            options.add(SelectorOptions.IGNORE_CASE);
+        }
+        if (random.nextBoolean()) {
+            options.add(SelectorOptions.INCLUDE_DELIMITERS);
+        }
+        return options.toArray(new SelectorOptions[options.size()]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multiExtractionRejectsRegex() {
+        MultiExtraction.builder().extractText("<a>", "</a>", SelectorOptions.REGEX);
+    }
+
+    private static void addField(MultiExtraction.Builder builder, String start, String end, SelectorOptions[] options) {
+        if (start.isEmpty()) {
+            builder.extractTextFromStart(end, options);
+        } else if (end.isEmpty()) {
+            builder.extractTextToEnd(start, options);
+        } else {
+            builder.extractText(start, end, options);
+        }
+    }
+
+    private static String extract(Selector selector, String start, String end, SelectorOptions[] options) {
+        boolean selected;
+        if (start.isEmpty()) {
+            selected = selector.selectTextFromStart(end, options);
+        } else if (end.isEmpty()) {
+            selected = selector.selectTextToEnd(start, options);
+        } else {
+            selected = selector.selectText(start, end, options);
+        }
+        return (selected) ? selector.extractText() : null;
+    }
+
+    private static int[] naiveMatches(List<String> strings, String text, int end, boolean ignoreCase) {
+        List<Integer> ids = new ArrayList<Integer>();
+
+        for (int id = 0; id < strings.size(); id++) {
+            String string = strings.get(id);
+            int start = end - string.length();
+
+            if ((!string.isEmpty()) && (start >= 0) && (fold(text.substring(start, end), ignoreCase).equals(fold(string, ignoreCase)))) {
+                ids.add(id);
+            }
+        }
+
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    private static String fold(String string, boolean ignoreCase) {
+        if (!ignoreCase) {
+            return string;
+        }
+
+        char[] chars = string.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+}
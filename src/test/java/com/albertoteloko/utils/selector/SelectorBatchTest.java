@@ -0,0 +1,152 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SelectorBatchTest {
+    private static final Function<Selector, String> EXTRACTION = new Function<Selector, String>() {
+        @Override
+        public String apply(Selector selector) {
+            return selector.extractText("<id>", "</id>");
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void runExtractsTheFilesInInputOrder() throws IOException {
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 50; i++) {
+            files.add(write("file" + i + ".xml", "<id>" + i + "</id>"));
+        }
+        files.add(write("bad.xml", "<name>bad</name>"));
+        RecordingSink sink = new RecordingSink();
+
+        SelectorBatch<String> batch = SelectorBatch.builder(EXTRACTION).threads(4).maxPending(3).ordered(true).build();
+        batch.run(files, sink);
+
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 50; i++) {
+            expected.add("file" + i + ".xml=" + i);
+        }
+        expected.add("bad.xml!");
+        assertEquals(expected, sink.events);
+        assertEquals(50, batch.getProcessedFiles());
+        assertEquals(1, batch.getFailedFiles());
+    }
+
+    @Test
+    public void runWalksTheSubdirectories() throws IOException {
+        write("a.xml", "<id>a</id>");
+        folder.newFolder("sub");
+        write("sub/b.xml", "<id>b</id>");
+        RecordingSink sink = new RecordingSink();
+
+        SelectorBatch.builder(EXTRACTION).threads(2).build().run(folder.getRoot(), sink);
+
+        Collections.sort(sink.events);
+        assertEquals(Arrays.asList("a.xml=a", "b.xml=b"), sink.events);
+    }
+
+    @Test
+    public void runGivesTheDirectoriesThatCantBeVisitedToTheSink() {
+        RecordingSink sink = new RecordingSink();
+        File missing = new File(folder.getRoot(), "missing");
+
+        SelectorBatch<String> batch = SelectorBatch.builder(EXTRACTION).build();
+        batch.run(missing, sink);
+
+        assertEquals(Collections.singletonList("missing!"), sink.events);
+        assertTrue(sink.causes.get(0) instanceof NoSuchFileException);
+        assertEquals(1, batch.getFailedFiles());
+    }
+
+    @Test
+    public void runRejectsTheConcurrentRuns() throws Exception {
+        final File file = write("a.xml", "<id>a</id>");
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final SelectorBatch<String> batch = SelectorBatch.builder(new Function<Selector, String>() {
+            @Override
+            public String apply(Selector selector) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return EXTRACTION.apply(selector);
+            }
+        }).build();
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    batch.run(Collections.singletonList(file), new RecordingSink());
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        });
+        thread.start();
+        started.await();
+
+        try {
+            batch.run(Collections.singletonList(file), new RecordingSink());
+            throw new AssertionError("The second run was accepted");
+        } catch (IllegalStateException e) {
+            // Expected
+        } finally {
+            release.countDown();
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        RecordingSink sink = new RecordingSink();
+        batch.run(Collections.singletonList(file), sink);
+        assertEquals(Collections.singletonList("a.xml=a"), sink.events);
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static final class RecordingSink implements SelectorBatch.Sink<String> {
+        private final List<String> events = new ArrayList<String>();
+        private final List<Throwable> causes = new ArrayList<Throwable>();
+
+        @Override
+        public void onResult(File file, String result) {
+            events.add(file.getName() + "=" + result);
+        }
+
+        @Override
+        public void onFailure(File file, Throwable cause) {
+            events.add(file.getName() + "!");
+            causes.add(cause);
+        }
+    }
+}
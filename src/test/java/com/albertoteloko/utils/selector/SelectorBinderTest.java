@@ -0,0 +1,175 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SelectorBinderTest {
+    private static final SelectorBinder<LongRecord> LONG_BINDER = SelectorBinder.of(LongRecord.class);
+    private static final SelectorBinder<IntRecord> INT_BINDER = SelectorBinder.of(IntRecord.class);
+    private static final SelectorBinder<DoubleRecord> DOUBLE_BINDER = SelectorBinder.of(DoubleRecord.class);
+
+    @Test
+    public void bindExtractsTheFields() {
+        Item item = SelectorBinder.of(Item.class).bind("<id>42</id><name>Tea</name><price>2.5</price><stock>true</stock>");
+
+        assertEquals(42, item.id);
+        assertEquals("Tea", item.name);
+        assertEquals(2.5, item.price, 0);
+        assertEquals(Boolean.TRUE, item.stock);
+        assertNull(item.weight);
+    }
+
+    @Test
+    public void parseLongMatchesTheJdkParser() {
+        String[] texts = {"0", "-0", "+0", "7", "-7", "+7", "007", "9223372036854775807", "-9223372036854775808",
+                "9223372036854775808", "-9223372036854775809", "92233720368547758070", "", "-", "+", "--1", "1-", "1a",
+                " 1", "1 ", "٣"};
+
+        for (String text : texts) {
+            assertLong(text);
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            assertLong(Long.toString(random.nextLong() >> random.nextInt(64)));
+        }
+    }
+
+    @Test
+    public void parseIntMatchesTheJdkParser() {
+        String[] texts = {"2147483647", "-2147483648", "2147483648", "-2147483649", "-", "12x"};
+
+        for (String text : texts) {
+            Integer expected = null;
+            try {
+                expected = Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                // Checked below
+            }
+
+            try {
+                assertEquals(text, expected, Integer.valueOf(INT_BINDER.bind(text).value));
+            } catch (NumberFormatException e) {
+                assertNull(text, expected);
+            }
+        }
+    }
+
+    @Test
+    public void parseDoubleMatchesTheJdkParser() {
+        String[] texts = {"0", "-0", "-0.0", "1.5", ".5", "5.", "+5", "1e10", "1E-10", "1e+22", "1e23", "1e-22", "1e-23",
+                "123456789012345", "1234567890123456789", "0.1", "0.30000000000000004", "4.9e-324", "1.7976931348623157e308",
+                "1e99999", "NaN", "-Infinity", "0x1p3", "1d", "1f", " 1", "1 ", "", ".", "-", "1e", "1e+", "e1", "1..2",
+                "1.2.3", "0000000000000000000001.5"};
+
+        for (String text : texts) {
+            assertDouble(text);
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int digits = 1 + random.nextInt(17);
+            for (int j = 0; j < digits; j++) {
+                builder.append((char) ('0' + random.nextInt(10)));
+            }
+            builder.insert(random.nextInt(digits + 1), '.');
+            if (random.nextBoolean()) {
+                builder.append('e').append(random.nextInt(61) - 30);
+            }
+            assertDouble(builder.toString());
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void bindRethrowsTheErrors() {
+        SelectorBinder.of(FailingRecord.class).bind("1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofRejectsTheRegexOption() {
+        SelectorBinder.of(RegexRecord.class);
+    }
+
+    private static void assertLong(String text) {
+        Long expected = null;
+        try {
+            expected = Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // Checked below
+        }
+
+        try {
+            long value = LONG_BINDER.bind(text).value;
+            assertEquals(text, expected, Long.valueOf(value));
+        } catch (NumberFormatException e) {
+            assertNull(text, expected);
+        }
+    }
+
+    private static void assertDouble(String text) {
+        Double expected = null;
+        try {
+            expected = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            // Checked below
+        }
+
+        try {
+            DoubleRecord record = DOUBLE_BINDER.bind(text);
+            assertEquals(text, expected, Double.valueOf(record.value));
+            assertEquals(text, expected, record.object);
+        } catch (NumberFormatException e) {
+            assertNull(text, expected);
+        }
+    }
+
+    static class Item {
+        @SelectorField(start = "<id>", end = "</id>")
+        int id;
+        @SelectorField(start = "<name>", end = "</name>")
+        String name;
+        @SelectorField(start = "<price>", end = "</price>")
+        double price;
+        @SelectorField(start = "<stock>", end = "</stock>")
+        Boolean stock;
+        @SelectorField(start = "<weight>", end = "</weight>", options = SelectorOptions.OPTIONAL)
+        Double weight;
+    }
+
+    static class LongRecord {
+        @SelectorField
+        long value;
+    }
+
+    static class IntRecord {
+        @SelectorField
+        int value;
+    }
+
+    static class DoubleRecord {
+        @SelectorField(options = SelectorOptions.NO_MOVE)
+        double value;
+        @SelectorField
+        Double object;
+    }
+
+    static class FailingRecord {
+        @SelectorField
+        long value;
+
+        FailingRecord() {
+            throw new AssertionError("Failing constructor");
+        }
+    }
+
+    static class RegexRecord {
+        @SelectorField(start = "a+", options = SelectorOptions.REGEX)
+        String value;
+    }
+}
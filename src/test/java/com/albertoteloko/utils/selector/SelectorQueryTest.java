@@ -0,0 +1,146 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class SelectorQueryTest {
+
+    @Test
+    public void executeMatchesTheSelectorCalls() {
+        Random random = new Random(1);
+        SelectorQuery query = SelectorQuery.builder()
+                .selectText("<r>", "</r>", SelectorOptions.OPTIONAL)
+                .selectTextFromStart("</k>", SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL)
+                .extractTextToEnd("<K>", SelectorOptions.IGNORE_CASE, SelectorOptions.OPTIONAL)
+                .deselectText()
+                .extractText("<k>", "</k>", SelectorOptions.OPTIONAL)
+                .extractText("<v>", "</v>", SelectorOptions.INCLUDE_DELIMITERS, SelectorOptions.IGNORE_CASE, SelectorOptions.OPTIONAL)
+                .extractText()
+                .deselectText()
+                .extractTextToEnd("</r>", SelectorOptions.OPTIONAL)
+                .build();
+
+        assertEquals(5, query.getFields());
+
+        for (int i = 0; i < 5000; i++) {
+            String text = randomRecords(random, random.nextInt(3));
+
+            assertArrayEquals(text, select(text), query.execute(text).toArray());
+        }
+    }
+
+    @Test
+    public void executeSkipsTheStepsOfTheOptionalSelectionsNotFound() {
+        SelectorQuery query = SelectorQuery.builder()
+                .selectText("<a>", "</a>", SelectorOptions.OPTIONAL)
+                .extractText()
+                .selectText("<b>", "</b>")
+                .extractText()
+                .deselectText()
+                .deselectText()
+                .extractText("<c>", "</c>")
+                .build();
+
+        ExtractionResult result = query.execute("<c>three</c>");
+
+        assertFalse(result.isFound(0));
+        assertFalse(result.isFound(1));
+        assertArrayEquals(new String[]{null, null, "three"}, result.toArray());
+        assertArrayEquals(new String[]{"<b>two</b>", "two", "three"}, query.execute("<a><b>two</b></a><c>three</c>").toArray());
+    }
+
+    @Test
+    public void executeThrowsTheSameExceptionsThanTheSelector() {
+        SelectorQuery query = SelectorQuery.builder().selectText("<a>", "</a>").extractText().build();
+        SelectorQuery cheapQuery = SelectorQuery.builder().selectText("<a>", "</a>", SelectorOptions.NO_STACK_TRACE).build();
+
+        for (String text : new String[]{"<b></b>", "<a>"}) {
+            String expected = null;
+            try {
+                new Selector(text).selectText("<a>", "</a>");
+            } catch (IllegalTextSelectionException e) {
+                expected = e.getMessage();
+            }
+
+            try {
+                query.execute(text);
+                fail("The selection must fail");
+            } catch (IllegalTextSelectionException e) {
+                assertEquals(expected, e.getMessage());
+            }
+            try {
+                cheapQuery.execute(text);
+                fail("The selection must fail");
+            } catch (IllegalTextSelectionException e) {
+                assertEquals(0, e.getStackTrace().length);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builderRejectsRegex() {
+        SelectorQuery.builder().selectText("a", "b", SelectorOptions.REGEX);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void builderCantBeUsedOnceBuilt() {
+        SelectorQuery.Builder builder = SelectorQuery.builder();
+        builder.build();
+
+        builder.extractText();
+    }
+
+    private static String[] select(String text) {
+        String[] fields = new String[5];
+        Selector selector = new Selector(text);
+
+        if (selector.selectText("<r>", "</r>", SelectorOptions.OPTIONAL)) {
+            if (selector.selectTextFromStart("</k>", SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL)) {
+                if (selector.selectTextToEnd("<K>", SelectorOptions.IGNORE_CASE, SelectorOptions.OPTIONAL)) {
+                    fields[0] = selector.extractText();
+                    selector.deselectText();
+                }
+                selector.deselectText();
+            }
+            fields[1] = selector.extractText("<k>", "</k>", SelectorOptions.OPTIONAL);
+            fields[2] = selector.extractText("<v>", "</v>", SelectorOptions.INCLUDE_DELIMITERS, SelectorOptions.IGNORE_CASE, SelectorOptions.OPTIONAL);
+            fields[3] = selector.extractText();
+            selector.deselectText();
+        }
+        if (selector.selectTextToEnd("</r>", SelectorOptions.OPTIONAL)) {
+            fields[4] = selector.extractText();
+        }
+        return fields;
+    }
+
+    private static String randomRecords(Random random, int count) {
+        String[] tags = {"<k>", "</k>", "<K>", "<v>", "</V>", "<V>", "</v>", "</r>", "<r>"};
+        // Never empty, the selector rejects the empty texts
+        StringBuilder builder = new StringBuilder(randomWord(random));
+
+        for (int i = 0; i < count; i++) {
+            builder.append("<r>");
+            for (int j = random.nextInt(6); j > 0; j--) {
+                builder.append((random.nextInt(3) == 0) ? tags[random.nextInt(tags.length)] : randomWord(random));
+            }
+            builder.append("</r>");
+        }
+        return (random.nextInt(5) == 0) ? builder.substring(random.nextInt(builder.length())) : builder.toString();
+    }
+
+    private static String randomWord(Random random) {
+        String letters = "abkKvV";
+        char[] chars = new char[1 + random.nextInt(4)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = letters.charAt(random.nextInt(letters.length()));
+        }
+        return new String(chars);
+    }
+}
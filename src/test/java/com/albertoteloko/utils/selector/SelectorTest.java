@@ -0,0 +1,130 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SelectorTest {
+
+    @Test
+    public void regexSelectionsMoveAfterTheWholeMatch() {
+        Selector selector = new Selector("<a href='x'>one</a ><a>two</a><b>three</b>");
+
+        assertEquals("one", selector.extractText("<a[^>]*>", "</a\\s*>", SelectorOptions.REGEX));
+        assertEquals("two", selector.extractText("<a[^>]*>", "</a\\s*>", SelectorOptions.REGEX));
+        assertEquals("<b>three</b>", selector.extractText("<[a-z]>", "</[a-z]>", SelectorOptions.REGEX, SelectorOptions.INCLUDE_DELIMITERS));
+        assertNull(selector.extractText("<[a-z]>", "</[a-z]>", SelectorOptions.REGEX, SelectorOptions.OPTIONAL));
+    }
+
+    @Test
+    public void regexSelectionsIncludeTheWholeDelimiters() {
+        Selector selector = new Selector("x <a href='x'>one</a > y");
+
+        assertTrue(selector.selectText("<a[^>]*>", "</a\\s*>", SelectorOptions.REGEX, SelectorOptions.INCLUDE_DELIMITERS));
+        assertEquals("<a href='x'>one</a >", selector.extractText());
+        assertEquals("one", selector.extractText(">", "<"));
+        selector.deselectText();
+
+        assertEquals(" y", selector.extractText());
+    }
+
+    @Test
+    public void regexSelectionsIgnoreTheCase() {
+        Selector selector = new Selector("<A>one</A><\u00c9>two</\u00c9>");
+
+        assertNull(selector.extractText("<a>", "</a>", SelectorOptions.REGEX, SelectorOptions.OPTIONAL));
+        assertEquals("one", selector.extractText("<a>", "</a>", SelectorOptions.REGEX, SelectorOptions.IGNORE_CASE));
+        assertEquals("two", selector.extractText("<\u00e9>", "</\u00e9>", SelectorOptions.REGEX, SelectorOptions.IGNORE_CASE));
+    }
+
+    @Test
+    public void regexSelectionsOnlyMatchInsideTheSelection() {
+        Selector selector = new Selector("12<b>ab34cd</b>56");
+
+        assertTrue(selector.selectText("<b>", "</b>"));
+        assertEquals("34", selector.extractText("[a-z]+", "[a-z]+", SelectorOptions.REGEX));
+        assertFalse(selector.selectTextToEnd("\\d", SelectorOptions.REGEX, SelectorOptions.OPTIONAL));
+        selector.deselectText();
+
+        assertTrue(selector.selectTextToEnd("\\d+", SelectorOptions.REGEX));
+        assertEquals("", selector.extractText());
+    }
+
+    @Test
+    public void regexSelectionsAcceptEmptyMatches() {
+        Selector selector = new Selector("abc");
+
+        assertEquals("", selector.extractText("a", "x*", SelectorOptions.REGEX));
+        assertEquals("bc", selector.extractText());
+    }
+
+    @Test
+    public void regexMissesReturnFalseOrThrow() {
+        Selector selector = new Selector("<a>one</a>");
+
+        assertFalse(selector.selectText("<b>", "</b>", SelectorOptions.REGEX, SelectorOptions.OPTIONAL));
+        assertFalse(selector.selectText("<a>", "</b>", SelectorOptions.REGEX, SelectorOptions.OPTIONAL));
+        assertEquals(SelectionResult.Status.END_NOT_FOUND, selector.trySelectText("<a>", "</b>", SelectorOptions.REGEX).getStatus());
+        try {
+            selector.selectText("<a>", "</?b>", SelectorOptions.REGEX);
+            fail("The selection must fail");
+        } catch (IllegalTextSelectionException e) {
+            assertEquals("End text: \"</?b>\" not found.", e.getMessage());
+        }
+
+        assertEquals("one", selector.extractText("<a>", "</a>", SelectorOptions.REGEX));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void extractAllRejectsRegex() {
+        new Selector("<a>one</a>").extractAll("<a>", "</a>", SelectorOptions.REGEX);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void extractAllViewsRejectsRegex() {
+        new Selector("<a>one</a>").extractAllViews("<a>", "</a>", SelectorOptions.REGEX);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void extractAllParallelRejectsRegex() {
+        new Selector("<a>one</a>").extractAllParallel("<a>", "</a>", SelectorOptions.REGEX);
+    }
+
+    @Test
+    public void notFoundExceptionsKeepTheSuppressedExceptions() {
+        Selector selector = new Selector("<a>one</a>");
+
+        try {
+            selector.selectText("<b>", "</b>");
+            fail("The selection must fail");
+        } catch (IllegalTextSelectionException e) {
+            IllegalStateException suppressed = new IllegalStateException();
+            e.addSuppressed(suppressed);
+
+            assertEquals("Start text: \"<b>\" not found.", e.getMessage());
+            assertTrue(e.getStackTrace().length > 0);
+            assertEquals(1, e.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void notFoundExceptionsWithoutStackTraceAreCheap() {
+        Selector selector = new Selector("<a>one</a>");
+
+        try {
+            selector.selectText("<a>", "</b>", SelectorOptions.NO_STACK_TRACE);
+            fail("The selection must fail");
+        } catch (IllegalTextSelectionException e) {
+            e.addSuppressed(new IllegalStateException());
+
+            assertEquals("End text: \"</b>\" not found.", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+            assertEquals(0, e.getSuppressed().length);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.albertoteloko.utils.selector;
+
+import com.albertoteloko.utils.selector.exceptions.IllegalTextSelectionException;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class StreamSelectorTest {
+    private static final int MAX_RECORD = 64;
+
+    @Test
+    public void selectionsMatchTheSelectorInAnyChunks() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 300; i++) {
+            String text = randomRecords(random, 1 + random.nextInt(60));
+            int windowSize = MAX_RECORD + random.nextInt(64);
+            String message = text + " window " + windowSize;
+
+            Selector expected = new Selector(text);
+            StreamSelector selector = new StreamSelector(new ChunkReader(text, random, 1 + random.nextInt(16)), windowSize);
+
+            while (true) {
+                boolean selected = expected.selectText("<r>", "</r>", SelectorOptions.OPTIONAL);
+                assertEquals(message, selected, selector.selectText("<r>", "</r>", SelectorOptions.OPTIONAL));
+                if (!selected) {
+                    break;
+                }
+
+                SelectorOptions[] options = randomOptions(random);
+                assertEquals(message, expected.extractText("<k>", "</k>", options), selector.extractText("<k>", "</k>", options));
+                options = randomOptions(random);
+                assertEquals(message, expected.extractText("<V>", "</V>", options), selector.extractText("<V>", "</V>", options));
+                assertEquals(message, expected.containsTextIgnoringCase("X"), selector.containsTextIgnoringCase("X"));
+                assertEquals(message, expected.extractTextToEnd("<", SelectorOptions.OPTIONAL), selector.extractTextToEnd("<", SelectorOptions.OPTIONAL));
+                assertEquals(message, expected.extractText(), selector.extractText());
+
+                expected.deselectText();
+                selector.deselectText();
+            }
+
+            assertEquals(message, expected.extractText(), selector.extractText());
+        }
+    }
+
+    @Test
+    public void nestedSelectionsKeepTheirTextWhileTheWindowMoves() {
+        Random random = new Random(2);
+        String text = randomRecords(random, 2000);
+        Selector expected = new Selector(text);
+        StreamSelector selector = new StreamSelector(new ChunkReader(text, random, 7), MAX_RECORD);
+
+        while (expected.selectText("<r>", "</r>", SelectorOptions.OPTIONAL, SelectorOptions.INCLUDE_DELIMITERS)) {
+            selector.selectText("<r>", "</r>", SelectorOptions.INCLUDE_DELIMITERS);
+
+            boolean selected = expected.selectTextFromStart("</k>", SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL);
+            assertEquals(selected, selector.selectTextFromStart("</k>", SelectorOptions.NO_MOVE, SelectorOptions.OPTIONAL));
+            if (selected) {
+                assertEquals(expected.extractTextToEnd("<k>"), selector.extractTextToEnd("<k>"));
+                expected.deselectText();
+                selector.deselectText();
+            }
+
+            assertEquals(expected.extractText(), selector.extractText());
+            expected.deselectText();
+            selector.deselectText();
+        }
+
+        assertFalse(selector.selectText("<r>", "</r>", SelectorOptions.OPTIONAL));
+        assertEquals(text.length(), selector.getPosition());
+    }
+
+    @Test
+    public void selectionsLongerThanTheWindowAreNotFound() {
+        String text = "<a>" + repeat('x', 100) + "</a>";
+
+        StreamSelector selector = new StreamSelector(new ChunkReader(text, new Random(3), 5), 50);
+
+        assertNull(selector.extractTextToEnd("<a>", SelectorOptions.OPTIONAL));
+        assertNull(selector.extractText("<a>", "</a>", SelectorOptions.OPTIONAL));
+        try {
+            selector.extractText("<a>", "</a>");
+            fail("The end is out of the window");
+        } catch (IllegalTextSelectionException e) {
+            assertEquals("End text: \"</a>\" not found.", e.getMessage());
+        }
+        try {
+            selector.extractText();
+            fail("The stream end is out of the window");
+        } catch (IllegalTextSelectionException e) {
+            assertEquals("Stream end not found in the next 50 chars.", e.getMessage());
+        }
+
+        selector = new StreamSelector(new StringReader(text), 200);
+        assertEquals(repeat('x', 100), selector.extractText("<a>", "</a>"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void selectTextRejectsRegex() {
+        new StreamSelector(new StringReader("abc")).selectText("a", "c", SelectorOptions.REGEX);
+    }
+
+    private static String randomRecords(Random random, int count) {
+        String[] noise = {"", " ", "\n", "x", "<", "</r", "<k"};
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            builder.append(noise[random.nextInt(noise.length)]);
+            builder.append("<r>");
+            if (random.nextBoolean()) {
+                builder.append("<k>").append(randomWord(random)).append("</k>");
+            }
+            if (random.nextBoolean()) {
+                builder.append((random.nextBoolean()) ? "<v>" : "<V>").append(randomWord(random)).append("</v>");
+            }
+            builder.append(randomWord(random)).append("</r>");
+        }
+        return builder.toString();
+    }
+
+    private static String randomWord(Random random) {
+        String letters = "abxXyY ";
+        char[] chars = new char[random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = letters.charAt(random.nextInt(letters.length()));
+        }
+        return new String(chars);
+    }
+
+    private static SelectorOptions[] randomOptions(Random random) {
+        SelectorOptions[][] options = {
+                {SelectorOptions.OPTIONAL},
+                {SelectorOptions.OPTIONAL, SelectorOptions.IGNORE_CASE},
+                {SelectorOptions.OPTIONAL, SelectorOptions.INCLUDE_DELIMITERS},
+                {SelectorOptions.OPTIONAL, SelectorOptions.NO_MOVE, SelectorOptions.IGNORE_CASE}};
+        return options[random.nextInt(options.length)];
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * A reader that returns the text in chunks of random sizes.
+     */
+    private static final class ChunkReader extends Reader {
+        private final String text;
+        private final Random random;
+        private final int maxChunk;
+        private int position;
+
+        private ChunkReader(String text, Random random, int maxChunk) {
+            this.text = text;
+            this.random = random;
+            this.maxChunk = maxChunk;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+
+            int count = Math.min(Math.min(length, text.length() - position), 1 + random.nextInt(maxChunk));
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SubstringIndexTest {
+
+    @Test
+    public void indexAcceptsTheTextsShorterThanAGram() {
+        for (String text : new String[]{"", "a", "ab", "abc"}) {
+            SubstringIndex index = new SubstringIndex(text, 4, 3);
+
+            assertEquals(-1, index.indexOf(text, "abcdef", 0, text.length(), false));
+        }
+    }
+
+    @Test
+    public void canSearchNeedsAGramAtEveryStep() {
+        SubstringIndex index = new SubstringIndex("abcdefgh", 4, 3);
+
+        assertFalse(index.canSearch(5));
+        assertTrue(index.canSearch(6));
+    }
+
+    @Test
+    public void indexOfMatchesTheStringSearch() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(2000);
+            for (int j = 0; j < length; j++) {
+                builder.append("abAB".charAt(random.nextInt(4)));
+            }
+            String text = builder.toString();
+            String lowerText = text.toLowerCase();
+            SubstringIndex index = new SubstringIndex(text, 3, 2);
+
+            for (int j = 0; j < 20; j++) {
+                int stringLength = 4 + random.nextInt(4);
+                int start = random.nextInt(Math.max(1, length - stringLength));
+                String string = (length >= stringLength) ? text.substring(start, start + stringLength) : "abab";
+                int from = random.nextInt(Math.max(1, length));
+
+                assertEquals(text.indexOf(string, from), index.indexOf(text, string, from, length, false));
+                assertEquals(lowerText.indexOf(string.toLowerCase(), from), index.indexOf(text, string, from, length, true));
+            }
+        }
+    }
+
+    @Test
+    public void indexedDocumentFindsTheSameTexts() {
+        StringBuilder builder = new StringBuilder("ab");
+        for (int i = 0; i < 1000; i++) {
+            builder.append("<item>").append(i).append("</item>");
+        }
+        SelectorDocument document = new SelectorDocument(builder.toString());
+        SelectorDocument indexed = document.index(4, 3);
+
+        assertTrue(indexed.isIndexed());
+        assertEquals(document.newSelector().extractText("<item>999", "</item>"), indexed.newSelector().extractText("<item>999", "</item>"));
+        assertEquals("ab", new SelectorDocument("ab").index(4, 3).newSelector().extractText());
+    }
+}
@@ -0,0 +1,120 @@
+package com.albertoteloko.utils.selector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class TailSelectorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void appendMatchesTheSelectorInAnyChunks() {
+        Random random = new Random(1);
+        String[][] delimiters = {{"<a>", "</a>"}, {"", "\n"}, {"ab", "ba"}, {"aa", "aa"}, {"A", "b"}};
+        String[] parts = {"<a>", "</a>", "\n", "a", "b", "A", "x"};
+
+        for (int i = 0; i < 300; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = 1 + random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                builder.append(parts[random.nextInt(parts.length)]);
+            }
+            String text = builder.toString();
+
+            for (String[] pair : delimiters) {
+                for (SelectorOptions[] options : new SelectorOptions[][]{{}, {SelectorOptions.INCLUDE_DELIMITERS}, {SelectorOptions.IGNORE_CASE}}) {
+                    List<String> expected = new Selector(text).extractAll(pair[0], pair[1], options).collect(Collectors.toList());
+                    RecordingListener listener = new RecordingListener();
+                    TailSelector selector = new TailSelector(pair[0], pair[1], listener, options);
+
+                    int position = 0;
+                    while (position < text.length()) {
+                        int end = Math.min(text.length(), position + 1 + random.nextInt(5));
+                        selector.append(text.subSequence(position, end));
+                        position = end;
+                    }
+
+                    assertEquals(text + " " + Arrays.toString(pair) + " " + Arrays.toString(options), expected, listener.texts);
+                    assertEquals(text.length(), selector.getPosition());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void appendGivesThePositionOfEachOccurrence() {
+        RecordingListener listener = new RecordingListener();
+        TailSelector selector = new TailSelector("[", "]", listener);
+
+        assertEquals(1, selector.append("x[one]y[tw"));
+        assertEquals(1, selector.append("o]"));
+
+        assertEquals(Arrays.asList("one", "two"), listener.texts);
+        assertEquals(Arrays.asList(2L, 8L), listener.positions);
+    }
+
+    @Test
+    public void pollReadsTheTextAddedToTheFile() throws IOException {
+        File file = folder.newFile("log.txt");
+        RecordingListener listener = new RecordingListener();
+
+        // The multi byte chars are split by the reads of 8192 bytes
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            builder.append("é").append(i).append("€\n");
+        }
+        String text = builder.toString();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        try (TailSelector selector = new TailSelector(file, StandardCharsets.UTF_8, "", "\n", listener)) {
+            assertEquals(0, selector.poll());
+
+            Files.write(file.toPath(), Arrays.copyOf(bytes, 10001), StandardOpenOption.APPEND);
+            selector.poll();
+            Files.write(file.toPath(), Arrays.copyOfRange(bytes, 10001, bytes.length), StandardOpenOption.APPEND);
+            selector.poll();
+
+            List<String> expected = new ArrayList<String>();
+            for (int i = 0; i < 3000; i++) {
+                expected.add("é" + i + "€");
+            }
+            assertEquals(expected, listener.texts);
+
+            Files.write(file.toPath(), "new\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals(1, selector.poll());
+            assertEquals("new", listener.texts.get(listener.texts.size() - 1));
+            assertEquals(4, selector.getPosition());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsTheRegexOption() {
+        new TailSelector("a+", "\n", new RecordingListener(), SelectorOptions.REGEX);
+    }
+
+    private static final class RecordingListener implements TailSelector.MatchListener {
+        private final List<String> texts = new ArrayList<String>();
+        private final List<Long> positions = new ArrayList<Long>();
+
+        @Override
+        public void onMatch(String text, long position) {
+            texts.add(text);
+            positions.add(position);
+        }
+    }
+}